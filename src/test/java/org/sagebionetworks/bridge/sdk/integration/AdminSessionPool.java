@@ -0,0 +1,56 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.sagebionetworks.bridge.rest.model.Role.ADMIN;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Admin sessions for each app, so tests can work in another app without calling adminChangeApp on the shared
+ * admin (two extra round-trips, and a race if anything else is using that admin at the same time). An account
+ * only has one session, so each app gets its own admin account, created on first use and signed in once.
+ * These accounts have the ADMIN role in their app; calls that need a superadmin still go through
+ * TestUserHelper.getSignedInAdmin(). InitListener deletes the accounts when the test run finishes.
+ */
+public class AdminSessionPool {
+    private static final Logger LOG = LoggerFactory.getLogger(AdminSessionPool.class);
+
+    private static final ConcurrentMap<String, TestUser> ADMINS = new ConcurrentHashMap<>();
+
+    public static TestUser getAdmin(String appId) throws IOException {
+        try {
+            return ADMINS.computeIfAbsent(appId, key -> {
+                try {
+                    return TestUserHelper.createAndSignInUser(AdminSessionPool.class, key, ADMIN);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public static <T> T getClient(String appId, Class<T> service) throws IOException {
+        return getAdmin(appId).getClient(service);
+    }
+
+    public static void deleteAdmins() {
+        for (TestUser admin : ADMINS.values()) {
+            try {
+                admin.signOutAndDeleteUser();
+            } catch (Exception ex) {
+                LOG.error("Error deleting admin for app " + admin.getAppId() + ": " + ex.getMessage(), ex);
+            }
+        }
+        ADMINS.clear();
+    }
+}
@@ -0,0 +1,180 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Throwables;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import org.sagebionetworks.bridge.rest.ApiClientProvider;
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.PublicApi;
+import org.sagebionetworks.bridge.rest.model.AppConfig;
+import org.sagebionetworks.bridge.rest.model.ClientInfo;
+
+/**
+ * A client-side cache of resolved app configs. The server picks an app config by matching the client's OS,
+ * app version and language against each config's criteria, so clients that agree on those three values get the
+ * same config. Entries are keyed by that bucket: OS name, app version divided into ranges of
+ * versionBucketSize, and the Accept-Language list. A bucket size of 1 is always correct; a larger size is only
+ * correct if no config's version criteria fall inside a range.
+ *
+ * Entries expire after a TTL, and are dropped early when we learn of a newer version of the config they hold.
+ * Concurrent requests for the same bucket wait for a single call to the server.
+ */
+public class AppConfigCache {
+
+    /** Retrieves the config for one client. Called at most once at a time for each bucket. */
+    @FunctionalInterface
+    public interface Loader {
+        AppConfig load(String userAgent, String acceptLanguage) throws IOException;
+    }
+
+    private final Loader loader;
+    private final Ticker ticker;
+    private final int versionBucketSize;
+    private final Cache<Bucket, Entry> cache;
+    private final AtomicLong maxStalenessNanos = new AtomicLong();
+    private final AtomicLong totalStalenessNanos = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /** A cache that retrieves configs through the unauthenticated PublicApi. */
+    public static AppConfigCache forPublicApi(String hostUrl, String appId, long ttlMillis, int versionBucketSize) {
+        Loader loader = (userAgent, acceptLanguage) -> new ApiClientProvider(hostUrl, userAgent, acceptLanguage,
+                appId).getClient(PublicApi.class).getConfigForApp(appId).execute().body();
+        return new AppConfigCache(loader, ttlMillis, versionBucketSize, Ticker.systemTicker());
+    }
+
+    public AppConfigCache(Loader loader, long ttlMillis, int versionBucketSize, Ticker ticker) {
+        checkNotNull(loader);
+        checkNotNull(ticker);
+        checkArgument(ttlMillis > 0, "ttlMillis must be positive");
+        checkArgument(versionBucketSize > 0, "versionBucketSize must be positive");
+        this.loader = loader;
+        this.ticker = ticker;
+        this.versionBucketSize = versionBucketSize;
+        this.cache = CacheBuilder.newBuilder().expireAfterWrite(ttlMillis, MILLISECONDS).ticker(ticker)
+                .recordStats().build();
+    }
+
+    public AppConfig get(ClientInfo clientInfo, String acceptLanguage) throws IOException {
+        Bucket bucket = new Bucket(clientInfo, acceptLanguage, versionBucketSize);
+        boolean[] loaded = new boolean[1];
+        Entry entry;
+        try {
+            entry = cache.get(bucket, () -> {
+                AppConfig config = loader.load(RestUtils.getUserAgent(clientInfo), acceptLanguage);
+                loaded[0] = true;
+                return new Entry(config, ticker.read());
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+        long staleness = ticker.read() - entry.loadedOn;
+        totalStalenessNanos.addAndGet(staleness);
+        maxStalenessNanos.accumulateAndGet(staleness, Math::max);
+
+        // Any other bucket holding an older version of this config is now known to be stale.
+        if (loaded[0] && entry.config.getGuid() != null && entry.config.getVersion() != null) {
+            invalidateOlderThan(entry.config.getGuid(), entry.config.getVersion());
+        }
+        return entry.config;
+    }
+
+    /** Drop every entry holding a version of this config older than the given version. */
+    public void invalidateOlderThan(String guid, long version) {
+        cache.asMap().values().removeIf(entry -> {
+            boolean stale = guid.equals(entry.config.getGuid()) && entry.config.getVersion() != null
+                    && entry.config.getVersion() < version;
+            if (stale) {
+                invalidations.incrementAndGet();
+            }
+            return stale;
+        });
+    }
+
+    public void invalidateAll() {
+        invalidations.addAndGet(cache.size());
+        cache.invalidateAll();
+    }
+
+    /** Hit, miss and load counts. Concurrent requests that waited on another request's load count as hits. */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /** Number of entries dropped because a newer version of their config was seen, or invalidateAll(). */
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    /** The oldest entry returned so far, measured from when it was retrieved from the server. */
+    public long getMaxStalenessMillis() {
+        return MILLISECONDS.convert(maxStalenessNanos.get(), NANOSECONDS);
+    }
+
+    public long getAverageStalenessMillis() {
+        long requests = cache.stats().requestCount();
+        return (requests == 0L) ? 0L : MILLISECONDS.convert(totalStalenessNanos.get() / requests, NANOSECONDS);
+    }
+
+    private static final class Entry {
+        private final AppConfig config;
+        private final long loadedOn;
+
+        private Entry(AppConfig config, long loadedOn) {
+            this.config = config;
+            this.loadedOn = loadedOn;
+        }
+    }
+
+    static final class Bucket {
+        private final String osName;
+        private final int versionBucket;
+        private final String language;
+
+        Bucket(ClientInfo clientInfo, String acceptLanguage, int versionBucketSize) {
+            this.osName = clientInfo.getOsName();
+            this.versionBucket = (clientInfo.getAppVersion() == null) ? -1
+                    : clientInfo.getAppVersion() / versionBucketSize;
+            this.language = normalizeLanguages(acceptLanguage);
+        }
+
+        // The server picks the best fit from the whole list of accepted languages, so the whole list is part of
+        // the key. Only whitespace and case are normalized.
+        private static String normalizeLanguages(String acceptLanguage) {
+            return (acceptLanguage == null) ? null : acceptLanguage.replaceAll("\\s", "").toLowerCase();
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(osName, versionBucket, language);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            Bucket other = (Bucket) obj;
+            return Objects.equals(osName, other.osName) && versionBucket == other.versionBucket
+                    && Objects.equals(language, other.language);
+        }
+    }
+}
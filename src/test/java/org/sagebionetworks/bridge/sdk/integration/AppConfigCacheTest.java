@@ -0,0 +1,134 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.sagebionetworks.bridge.rest.model.Role.DEVELOPER;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.sagebionetworks.bridge.rest.ApiClientProvider;
+import org.sagebionetworks.bridge.rest.api.AppConfigsApi;
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.PublicApi;
+import org.sagebionetworks.bridge.rest.model.AppConfig;
+import org.sagebionetworks.bridge.rest.model.Criteria;
+import org.sagebionetworks.bridge.rest.model.GuidVersionHolder;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+public class AppConfigCacheTest {
+    // Well above the versions used by other tests, so this config only matches our own clients.
+    private static final int MIN_VERSION = 3000;
+    private static final int MAX_VERSION = 3009;
+    private static final String LANGUAGE = "en";
+    private static final long TTL_MILLIS = 60000L;
+
+    private TestUser developer;
+    private AppConfigsApi configsApi;
+    private AppConfig appConfig;
+    private AtomicInteger loadCount;
+    private AtomicLong now;
+    private AppConfigCache cache;
+
+    @Before
+    public void before() throws Exception {
+        developer = TestUserHelper.createAndSignInUser(AppConfigCacheTest.class, false, DEVELOPER);
+        configsApi = developer.getClient(AppConfigsApi.class);
+
+        Criteria criteria = new Criteria().minAppVersions(ImmutableMap.of("Android", MIN_VERSION))
+                .maxAppVersions(ImmutableMap.of("Android", MAX_VERSION));
+        appConfig = new AppConfig().label(Tests.randomIdentifier(AppConfigCacheTest.class)).criteria(criteria);
+        GuidVersionHolder keys = configsApi.createAppConfig(appConfig).execute().body();
+        appConfig.setGuid(keys.getGuid());
+        appConfig.setVersion(keys.getVersion());
+
+        String hostUrl = developer.getClientManager().getHostUrl();
+        String appId = developer.getAppId();
+        loadCount = new AtomicInteger();
+        AppConfigCache.Loader loader = (userAgent, acceptLanguage) -> {
+            loadCount.incrementAndGet();
+            return new ApiClientProvider(hostUrl, userAgent, acceptLanguage, appId).getClient(PublicApi.class)
+                    .getConfigForApp(appId).execute().body();
+        };
+        now = new AtomicLong();
+        Ticker ticker = new Ticker() {
+            @Override
+            public long read() {
+                return now.get();
+            }
+        };
+        cache = new AppConfigCache(loader, TTL_MILLIS, 10, ticker);
+    }
+
+    @After
+    public void after() throws Exception {
+        if (appConfig != null && appConfig.getGuid() != null) {
+            TestUserHelper.getSignedInAdmin().getClient(ForAdminsApi.class)
+                    .deleteAppConfig(appConfig.getGuid(), true).execute();
+        }
+        if (developer != null) {
+            developer.signOutAndDeleteUser();
+        }
+    }
+
+    @Test
+    public void concurrentRequestsForOneBucketLoadOnce() throws Exception {
+        int threadCount = 20;
+        LatencyStats stats = new LatencyStats("cached getConfigForApp");
+        stats.runConcurrently(threadCount, threadCount,
+                i -> cache.get(Tests.getClientInfoWithVersion("Android", MIN_VERSION + (i % 10)), LANGUAGE));
+
+        assertEquals(0, stats.getErrorCount());
+        assertEquals(threadCount, stats.getCount());
+        assertEquals(1, loadCount.get());
+        assertEquals(threadCount - 1, cache.getStats().hitCount());
+    }
+
+    @Test
+    public void differentBucketsLoadSeparately() throws Exception {
+        cache.get(Tests.getClientInfoWithVersion("Android", MIN_VERSION), LANGUAGE);
+        cache.get(Tests.getClientInfoWithVersion("Android", MIN_VERSION), "fr");
+        assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    public void entriesExpireAfterTtl() throws Exception {
+        cache.get(Tests.getClientInfoWithVersion("Android", MIN_VERSION), LANGUAGE);
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(TTL_MILLIS / 2));
+        cache.get(Tests.getClientInfoWithVersion("Android", MIN_VERSION), LANGUAGE);
+        assertEquals(1, loadCount.get());
+        assertEquals(TTL_MILLIS / 2, cache.getMaxStalenessMillis());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(TTL_MILLIS));
+        cache.get(Tests.getClientInfoWithVersion("Android", MIN_VERSION), LANGUAGE);
+        assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    public void newerVersionInvalidatesEntry() throws Exception {
+        AppConfig cached = cache.get(Tests.getClientInfoWithVersion("Android", MIN_VERSION), LANGUAGE);
+        assertEquals(appConfig.getVersion(), cached.getVersion());
+
+        appConfig.setLabel(appConfig.getLabel() + " updated");
+        GuidVersionHolder keys = configsApi.updateAppConfig(appConfig.getGuid(), appConfig).execute().body();
+        appConfig.setVersion(keys.getVersion());
+
+        cache.invalidateOlderThan(keys.getGuid(), keys.getVersion());
+        assertEquals(1, cache.getInvalidationCount());
+
+        AppConfig reloaded = cache.get(Tests.getClientInfoWithVersion("Android", MIN_VERSION), LANGUAGE);
+        assertEquals(keys.getVersion(), reloaded.getVersion());
+        assertEquals(2, loadCount.get());
+        assertTrue(reloaded.getLabel().endsWith(" updated"));
+    }
+}
@@ -0,0 +1,191 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertTrue;
+import static org.sagebionetworks.bridge.rest.model.Role.DEVELOPER;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.ApiClientProvider;
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.AppConfigsApi;
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.PublicApi;
+import org.sagebionetworks.bridge.rest.model.AppConfig;
+import org.sagebionetworks.bridge.rest.model.AppConfigElement;
+import org.sagebionetworks.bridge.rest.model.ConfigReference;
+import org.sagebionetworks.bridge.rest.model.Criteria;
+import org.sagebionetworks.bridge.rest.model.GuidVersionHolder;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Creates hundreds of app configs and config elements with criteria of varying complexity, then calls
+ * getConfigForApp with a skewed mix of user agents, the way a population of installed apps would. The server's
+ * resolution cache isn't visible to the client, so we report latency for the first request from each distinct
+ * client ("cold") separately from repeat requests ("warm"), and count how often a repeat request resolved to a
+ * different config than the last one did.
+ */
+@Category(PerformanceTest.class)
+public class AppConfigPerformanceTest {
+    private static final Logger LOG = LoggerFactory.getLogger(AppConfigPerformanceTest.class);
+
+    private static final int CONFIG_COUNT = Integer.getInteger("perf.appconfig.configs", 200);
+    private static final int ELEMENT_COUNT = Integer.getInteger("perf.appconfig.elements", 50);
+    private static final int REQUEST_COUNT = Integer.getInteger("perf.appconfig.requests", 2000);
+    private static final int THREAD_COUNT = Integer.getInteger("perf.threads", 20);
+    // Well above the versions used by other tests, so these configs only match our own clients.
+    private static final int BASE_VERSION = 2000;
+    private static final int VERSION_SPREAD = 100;
+    private static final List<String> OS_NAMES = ImmutableList.of("Android", "iPhone OS");
+    private static final List<String> LANGUAGES = ImmutableList.of("en", "fr", "de");
+
+    private TestUser admin;
+    private TestUser developer;
+    private List<String> elementIds;
+    private List<String> configGuids;
+
+    @Before
+    public void before() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        developer = TestUserHelper.createAndSignInUser(AppConfigPerformanceTest.class, false, DEVELOPER);
+        elementIds = new ArrayList<>();
+        configGuids = new ArrayList<>();
+
+        AppConfigsApi configsApi = developer.getClient(AppConfigsApi.class);
+        for (int i = 0; i < ELEMENT_COUNT; i++) {
+            String id = Tests.randomIdentifier(AppConfigPerformanceTest.class);
+            AppConfigElement element = new AppConfigElement().id(id).revision(1L)
+                    .data(Tests.getSimpleSchedulePlan());
+            configsApi.createAppConfigElement(element).execute();
+            elementIds.add(id);
+        }
+        for (int i = 0; i < CONFIG_COUNT; i++) {
+            AppConfig config = new AppConfig().label(Tests.randomIdentifier(AppConfigPerformanceTest.class))
+                    .criteria(makeCriteria(i)).configReferences(makeConfigReferences(i));
+            GuidVersionHolder keys = configsApi.createAppConfig(config).execute().body();
+            configGuids.add(keys.getGuid());
+        }
+    }
+
+    @After
+    public void after() throws Exception {
+        ForAdminsApi adminApi = admin.getClient(ForAdminsApi.class);
+        AppConfigsApi configsApi = admin.getClient(AppConfigsApi.class);
+        TeardownRegistry teardown = new TeardownRegistry(THREAD_COUNT);
+        for (String id : elementIds) {
+            teardown.register("element:" + id, () -> configsApi.deleteAllAppConfigElementRevisions(id, true)
+                    .execute());
+        }
+        // Configs are created in index order, so each one's references can be rebuilt from its index.
+        for (int i = 0; i < configGuids.size(); i++) {
+            String guid = configGuids.get(i);
+            String[] references = makeConfigReferences(i).stream().map(ref -> "element:" + ref.getId())
+                    .distinct().toArray(String[]::new);
+            teardown.register("config:" + guid, () -> adminApi.deleteAppConfig(guid, true).execute(), references);
+        }
+        if (developer != null) {
+            teardown.register("user:" + developer.getUserId(), developer::signOutAndDeleteUser);
+        }
+        teardown.deleteAll();
+    }
+
+    @Test
+    public void getConfigForAppLatency() throws Exception {
+        // Pick clients up front with a fixed seed so runs are comparable. Most traffic comes from a few
+        // recent versions, with a long tail of old installs.
+        Random random = new Random(42L);
+        List<String> userAgents = new ArrayList<>();
+        List<String> languages = new ArrayList<>();
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            String osName = OS_NAMES.get(random.nextInt(OS_NAMES.size()));
+            int version = BASE_VERSION + (int)(VERSION_SPREAD * Math.pow(random.nextDouble(), 3));
+            userAgents.add(RestUtils.getUserAgent(Tests.getClientInfoWithVersion(osName, version)));
+            languages.add(LANGUAGES.get(random.nextInt(LANGUAGES.size())));
+        }
+
+        String hostUrl = developer.getClientManager().getHostUrl();
+        Map<String, PublicApi> clients = new ConcurrentHashMap<>();
+        Map<String, String> lastResolved = new ConcurrentHashMap<>();
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        AtomicInteger reResolved = new AtomicInteger();
+
+        LatencyStats all = new LatencyStats("getConfigForApp");
+        LatencyStats cold = new LatencyStats("getConfigForApp (first request per client)");
+        LatencyStats warm = new LatencyStats("getConfigForApp (repeat request per client)");
+
+        all.runConcurrently(THREAD_COUNT, REQUEST_COUNT, i -> {
+            String key = userAgents.get(i) + "|" + languages.get(i);
+            PublicApi publicApi = clients.computeIfAbsent(key, k -> new ApiClientProvider(hostUrl,
+                    userAgents.get(i), languages.get(i), developer.getAppId()).getClient(PublicApi.class));
+            LatencyStats bucket = seen.add(key) ? cold : warm;
+
+            AppConfig config = bucket.time(v -> publicApi.getConfigForApp(developer.getAppId()).execute().body());
+            String resolved = config.getGuid() + ":" + config.getVersion();
+            String previous = lastResolved.put(key, resolved);
+            if (previous != null && !previous.equals(resolved)) {
+                reResolved.incrementAndGet();
+            }
+            return config;
+        });
+
+        LOG.info("{} configs, {} elements, {} distinct clients", CONFIG_COUNT, ELEMENT_COUNT, seen.size());
+        LOG.info(all.toString());
+        LOG.info(cold.toString());
+        LOG.info(warm.toString());
+        LOG.info("Repeat requests resolved to a different config than the previous request: {} of {}",
+                reResolved.get(), warm.getCount());
+
+        assertTrue(all.getCount() > 0);
+    }
+
+    // Complexity grows with the index: version ranges on one platform, then both platforms, then a language,
+    // then data group rules as well.
+    private Criteria makeCriteria(int index) {
+        int min = BASE_VERSION + (index * 7) % VERSION_SPREAD;
+        int max = min + 10;
+        Criteria criteria = new Criteria()
+                .minAppVersions(ImmutableMap.of("Android", min))
+                .maxAppVersions(ImmutableMap.of("Android", max));
+        int complexity = index % 4;
+        if (complexity >= 1) {
+            criteria.minAppVersions(ImmutableMap.of("Android", min, "iPhone OS", min))
+                    .maxAppVersions(ImmutableMap.of("Android", max, "iPhone OS", max));
+        }
+        if (complexity >= 2) {
+            criteria.language(LANGUAGES.get(index % LANGUAGES.size()));
+        }
+        if (complexity >= 3) {
+            criteria.addNoneOfGroupsItem("sdk-int-1");
+        }
+        return criteria;
+    }
+
+    private List<ConfigReference> makeConfigReferences(int index) {
+        List<ConfigReference> references = new ArrayList<>();
+        if (elementIds.isEmpty()) {
+            return references;
+        }
+        int count = 1 + index % 3;
+        for (int i = 0; i < count; i++) {
+            String id = elementIds.get((index + i) % elementIds.size());
+            references.add(new ConfigReference().id(id).revision(1L));
+        }
+        return references;
+    }
+}
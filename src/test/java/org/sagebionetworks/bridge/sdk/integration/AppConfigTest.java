@@ -120,45 +120,39 @@ public class AppConfigTest {
 
     @After
     public void deleteAppConfigs() throws Exception {
-        for (String configGuid : configsToDelete) {
-            adminApi.deleteAppConfig(configGuid, true).execute();
-        }
-    }
-    
-    @After
-    public void deleteSurveys() throws IOException {
+        TeardownRegistry teardown = new TeardownRegistry();
+        
+        // The configs reference everything else, so they are deleted first.
+        String survey = null;
         if (surveyKeys != null) {
-            admin.getClient(SurveysApi.class).deleteSurvey(
-                surveyKeys.getGuid(), surveyKeys.getCreatedOn(), true).execute();
+            survey = teardown.register("survey:" + surveyKeys.getGuid(), () -> admin.getClient(SurveysApi.class)
+                    .deleteSurvey(surveyKeys.getGuid(), surveyKeys.getCreatedOn(), true).execute());
         }
-    }
-    
-    @After
-    public void deleteUploadSchema() throws IOException {
+        String schema = null;
         if (schemaKeys != null) {
-            adminApi.deleteAllRevisionsOfUploadSchema(schemaKeys.getSchemaId(), true).execute();
+            schema = teardown.register("schema:" + schemaKeys.getSchemaId(),
+                    () -> adminApi.deleteAllRevisionsOfUploadSchema(schemaKeys.getSchemaId(), true).execute());
         }
-    }
-    
-    @After
-    public void deleteFile() throws Exception {
+        String file = null;
         if (fileKeys != null) {
-            adminApi.deleteFile(fileKeys.getGuid(), true).execute();
+            file = teardown.register("file:" + fileKeys.getGuid(),
+                    () -> adminApi.deleteFile(fileKeys.getGuid(), true).execute());
         }
-    }
-    
-    @After
-    public void deleteAssessment() throws Exception {
+        String assessment = null;
         if (assessmentGuid != null) {
-            adminApi.deleteAssessment(assessmentGuid, true).execute();
+            assessment = teardown.register("assessment:" + assessmentGuid,
+                    () -> adminApi.deleteAssessment(assessmentGuid, true).execute());
         }
-    }
-    
-    @After
-    public void deleteAppConfigElement() throws IOException {
+        String configElement = null;
         if (element != null) {
-            adminApi.deleteAppConfigElement(element.getId(), element.getRevision(), true).execute();    
+            configElement = teardown.register("element:" + element.getId(), () -> adminApi
+                    .deleteAppConfigElement(element.getId(), element.getRevision(), true).execute());
+        }
+        for (String configGuid : configsToDelete) {
+            teardown.register("config:" + configGuid, () -> adminApi.deleteAppConfig(configGuid, true).execute(),
+                    survey, schema, file, assessment, configElement);
         }
+        teardown.deleteAll();
     }
 
     @After
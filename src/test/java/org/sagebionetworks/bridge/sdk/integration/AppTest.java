@@ -59,7 +59,6 @@ import org.sagebionetworks.bridge.rest.model.AppleAppLink;
 import org.sagebionetworks.bridge.rest.model.ClientInfo;
 import org.sagebionetworks.bridge.rest.model.Message;
 import org.sagebionetworks.bridge.rest.model.OAuthProvider;
-import org.sagebionetworks.bridge.rest.model.SignIn;
 import org.sagebionetworks.bridge.rest.model.Upload;
 import org.sagebionetworks.bridge.rest.model.UploadFieldDefinition;
 import org.sagebionetworks.bridge.rest.model.UploadFieldType;
@@ -236,7 +235,6 @@ public class AppTest {
         VersionHolder holder = superadminApi.createApp(app).execute().body();
         assertNotNull(holder.getVersion());
 
-        superadminApi.adminChangeApp(new SignIn().appId(appId)).execute();
         App newApp = superadminApi.getApp(app.getIdentifier()).execute().body();
         
         app.addDataGroupsItem("test_user"); // added by the server, required for equality of dataGroups.
@@ -339,10 +337,6 @@ public class AppTest {
         assertFalse("consentNotificationEmailVerified should be false after update", newestApp
                 .isConsentNotificationEmailVerified());
         
-        // and then you have to switch back, because after you delete this test app, 
-        // all users signed into that app are locked out of working.
-        superadminApi.adminChangeApp(new SignIn().appId(TEST_APP_ID)).execute();
-
         // logically delete a app by admin
         superadminApi.deleteApp(appId, false).execute();
         App retApp = superadminApi.getApp(appId).execute().body();
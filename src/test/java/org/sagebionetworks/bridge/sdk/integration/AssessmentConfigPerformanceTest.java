@@ -0,0 +1,258 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.sagebionetworks.bridge.rest.model.Role.DEVELOPER;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.ORG_ID_1;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.randomIdentifier;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.AssessmentsApi;
+import org.sagebionetworks.bridge.rest.api.OrganizationsApi;
+import org.sagebionetworks.bridge.rest.api.SharedAssessmentsApi;
+import org.sagebionetworks.bridge.rest.api.TagsApi;
+import org.sagebionetworks.bridge.rest.model.Assessment;
+import org.sagebionetworks.bridge.rest.model.AssessmentConfig;
+import org.sagebionetworks.bridge.rest.model.AssessmentList;
+import org.sagebionetworks.bridge.rest.model.PropertyInfo;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Generates large, nested assessment configs and measures getAssessmentConfig, updateAssessmentConfig and
+ * customizeAssessmentConfig as the config and the customization map grow. As in AssessmentConfigTest, the config
+ * is published and imported back, and the imported copy is customized. Then several threads customize the same
+ * config at once, to show how often a customization loses the race with another write.
+ */
+@Category(PerformanceTest.class)
+public class AssessmentConfigPerformanceTest {
+    private static final Logger LOG = LoggerFactory.getLogger(AssessmentConfigPerformanceTest.class);
+
+    private static final int MAX_NODES = Integer.getInteger("perf.assessmentConfig.maxNodes", 1000);
+    private static final int DEPTH = Integer.getInteger("perf.assessmentConfig.depth", 4);
+    private static final int CALLS_PER_SIZE = Integer.getInteger("perf.assessmentConfig.calls", 10);
+    private static final int CONCURRENT_CUSTOMIZATIONS = Integer.getInteger("perf.assessmentConfig.concurrent",
+            200);
+    private static final int THREAD_COUNT = Integer.getInteger("perf.threads", 20);
+    private static final int FIELDS_PER_NODE = 5;
+    private static final int CUSTOMIZABLE_FIELDS_PER_NODE = 3;
+
+    private TestUser developer;
+    private String markerTag;
+    private AssessmentsApi assessmentApi;
+    private SharedAssessmentsApi sharedApi;
+
+    @Before
+    public void before() throws Exception {
+        markerTag = "test:" + randomIdentifier(AssessmentConfigPerformanceTest.class);
+        developer = new TestUserHelper.Builder(AssessmentConfigPerformanceTest.class).withRoles(DEVELOPER)
+                .createAndSignInUser();
+        TestUserHelper.getSignedInAdmin().getClient(OrganizationsApi.class).addMember(ORG_ID_1,
+                developer.getUserId()).execute();
+        assessmentApi = developer.getClient(AssessmentsApi.class);
+        sharedApi = developer.getClient(SharedAssessmentsApi.class);
+    }
+
+    @After
+    public void after() throws Exception {
+        TestUser admin = TestUserHelper.getSignedInAdmin();
+        AssessmentsApi api = admin.getClient(AssessmentsApi.class);
+        SharedAssessmentsApi adminSharedApi = admin.getClient(SharedAssessmentsApi.class);
+        TeardownRegistry teardown = new TeardownRegistry(THREAD_COUNT);
+
+        if (developer != null) {
+            teardown.register("user:" + developer.getUserId(), developer::signOutAndDeleteUser);
+        }
+        // Every revision carries the tag, and local copies are deleted before the shared ones they came from.
+        String tag = teardown.register("tag:" + markerTag, () -> admin.getClient(TagsApi.class)
+                .deleteTag(markerTag).execute());
+        List<String> sharedAndTag = new ArrayList<>();
+        sharedAndTag.add(tag);
+        AssessmentList sharedAssessments = adminSharedApi.getSharedAssessments(
+                null, null, ImmutableList.of(markerTag), true).execute().body();
+        for (Assessment oneSharedAssessment : sharedAssessments.getItems()) {
+            AssessmentList revisions = adminSharedApi.getSharedAssessmentRevisionsById(
+                    oneSharedAssessment.getIdentifier(), null, null, true).execute().body();
+            for (Assessment revision : revisions.getItems()) {
+                sharedAndTag.add(teardown.register("shared:" + revision.getGuid(), () -> adminSharedApi
+                        .deleteSharedAssessment(revision.getGuid(), true).execute(), tag));
+            }
+        }
+        String[] referenced = sharedAndTag.toArray(new String[0]);
+        AssessmentList assessments = api.getAssessments(
+                null, null, ImmutableList.of(markerTag), true).execute().body();
+        for (Assessment oneAssessment : assessments.getItems()) {
+            AssessmentList revisions = api.getAssessmentRevisionsById(
+                    oneAssessment.getIdentifier(), null, null, true).execute().body();
+            for (Assessment revision : revisions.getItems()) {
+                teardown.register("assessment:" + revision.getGuid(), () -> api.deleteAssessment(revision.getGuid(),
+                        true).execute(), referenced);
+            }
+        }
+        teardown.deleteAll();
+    }
+
+    @Test
+    public void configSizeAndCustomizationSize() throws Exception {
+        for (int nodeCount = 10; nodeCount <= MAX_NODES; nodeCount *= 10) {
+            JsonArray config = makeConfig(nodeCount);
+            int configBytes = RestUtils.GSON.toJson(config).getBytes(UTF_8).length;
+
+            LatencyStats update = new LatencyStats("updateAssessmentConfig (" + nodeCount + " nodes)");
+            Assessment assessment = createAssessment(nodeCount);
+            for (int i = 0; i < CALLS_PER_SIZE; i++) {
+                AssessmentConfig existing = assessmentApi.getAssessmentConfig(assessment.getGuid()).execute()
+                        .body();
+                existing.setConfig(config);
+                update.time(v -> assessmentApi.updateAssessmentConfig(assessment.getGuid(), existing).execute()
+                        .body());
+            }
+            LOG.info("{}, {} bytes", update, configBytes);
+
+            String importedGuid = publishAndImport(assessment);
+            LatencyStats get = new LatencyStats("getAssessmentConfig (" + nodeCount + " nodes)");
+            for (int i = 0; i < CALLS_PER_SIZE; i++) {
+                get.time(v -> assessmentApi.getAssessmentConfig(importedGuid).execute().body());
+            }
+            LOG.info(get.toString());
+
+            for (int customized = 1; customized <= nodeCount; customized *= 10) {
+                Map<String, Map<String, JsonElement>> customization = makeCustomization(customized, "changed");
+                LatencyStats customize = new LatencyStats("customizeAssessmentConfig (" + nodeCount
+                        + " nodes, " + customized + " customized)");
+                for (int i = 0; i < CALLS_PER_SIZE; i++) {
+                    customize.time(v -> assessmentApi.customizeAssessmentConfig(importedGuid, customization)
+                            .execute().body());
+                }
+                LOG.info("{}, {} bytes", customize,
+                        RestUtils.GSON.toJson(customization).getBytes(UTF_8).length);
+                assertEquals(0, customize.getErrorCount());
+            }
+        }
+    }
+
+    @Test
+    public void concurrentCustomizationOfOneConfig() throws Exception {
+        int nodeCount = Math.min(100, MAX_NODES);
+        Assessment assessment = createAssessment(nodeCount);
+        AssessmentConfig existing = assessmentApi.getAssessmentConfig(assessment.getGuid()).execute().body();
+        existing.setConfig(makeConfig(nodeCount));
+        assessmentApi.updateAssessmentConfig(assessment.getGuid(), existing).execute();
+        String importedGuid = publishAndImport(assessment);
+
+        // Each thread customizes a different node, so no customization should overwrite another's change;
+        // but every customization is a read-modify-write of the whole config.
+        AtomicInteger successes = new AtomicInteger();
+        LatencyStats customize = new LatencyStats("customizeAssessmentConfig (concurrent, " + THREAD_COUNT
+                + " threads)");
+        customize.runConcurrently(THREAD_COUNT, CONCURRENT_CUSTOMIZATIONS, i -> {
+            Map<String, Map<String, JsonElement>> customization = new LinkedHashMap<>();
+            customization.put(nodeId(i % nodeCount), fieldValues("value-" + i));
+            AssessmentConfig result = assessmentApi.customizeAssessmentConfig(importedGuid, customization)
+                    .execute().body();
+            successes.incrementAndGet();
+            return result;
+        });
+        LOG.info(customize.toString());
+        LOG.info("{} of {} customizations succeeded, {} conflicted or failed", successes.get(),
+                CONCURRENT_CUSTOMIZATIONS, customize.getErrorCount());
+        assertTrue(successes.get() > 0);
+    }
+
+    private Assessment createAssessment(int nodeCount) throws Exception {
+        Map<String, List<PropertyInfo>> customizationFields = new LinkedHashMap<>();
+        for (int i = 0; i < nodeCount; i++) {
+            List<PropertyInfo> fields = new ArrayList<>();
+            for (int j = 1; j <= CUSTOMIZABLE_FIELDS_PER_NODE; j++) {
+                fields.add(new PropertyInfo().propName("field" + j).label("field" + j + " label"));
+            }
+            customizationFields.put(nodeId(i), fields);
+        }
+        Assessment unsavedAssessment = new Assessment()
+                .identifier(randomIdentifier(AssessmentConfigPerformanceTest.class))
+                .title("Title")
+                .osName("Android")
+                .ownerId(ORG_ID_1)
+                .tags(ImmutableList.of(markerTag))
+                .customizationFields(customizationFields);
+        return assessmentApi.createAssessment(unsavedAssessment).execute().body();
+    }
+
+    private String publishAndImport(Assessment assessment) throws Exception {
+        assessmentApi.publishAssessment(assessment.getGuid(), null).execute();
+        Assessment shared = sharedApi.getLatestSharedAssessmentRevision(assessment.getIdentifier()).execute()
+                .body();
+        return sharedApi.importSharedAssessment(shared.getGuid(), ORG_ID_1, assessment.getIdentifier() + "-c")
+                .execute().body().getGuid();
+    }
+
+    // Nodes are spread over a tree DEPTH levels deep; each node has FIELDS_PER_NODE fields.
+    private static JsonArray makeConfig(int nodeCount) {
+        int perLevel = Math.max(1, (int) Math.ceil(Math.pow(nodeCount, 1.0 / DEPTH)));
+        JsonArray root = new JsonArray();
+        int[] next = { 0 };
+        addChildren(root, nodeCount, perLevel, 1, next);
+        return root;
+    }
+
+    private static void addChildren(JsonArray parent, int nodeCount, int perLevel, int level, int[] next) {
+        for (int i = 0; i < perLevel && next[0] < nodeCount; i++) {
+            JsonObject node = new JsonObject();
+            node.addProperty("identifier", nodeId(next[0]++));
+            node.addProperty("type", "Type");
+            for (int j = 1; j <= FIELDS_PER_NODE; j++) {
+                node.addProperty("field" + j, "original");
+            }
+            if (level < DEPTH) {
+                JsonArray children = new JsonArray();
+                addChildren(children, nodeCount, perLevel, level + 1, next);
+                node.add("children", children);
+            }
+            parent.add(node);
+        }
+        // Anything that didn't fit under the tree goes at the top level.
+        while (level == 1 && next[0] < nodeCount) {
+            addChildren(parent, nodeCount, perLevel, level, next);
+        }
+    }
+
+    private static Map<String, Map<String, JsonElement>> makeCustomization(int nodeCount, String value) {
+        Map<String, Map<String, JsonElement>> customization = new LinkedHashMap<>();
+        for (int i = 0; i < nodeCount; i++) {
+            customization.put(nodeId(i), fieldValues(value));
+        }
+        return customization;
+    }
+
+    private static Map<String, JsonElement> fieldValues(String value) {
+        Map<String, JsonElement> fields = new LinkedHashMap<>();
+        for (int j = 1; j <= CUSTOMIZABLE_FIELDS_PER_NODE; j++) {
+            fields.put("field" + j, new JsonPrimitive(value));
+        }
+        return fields;
+    }
+
+    private static String nodeId(int index) {
+        return "node" + index;
+    }
+}
@@ -0,0 +1,302 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.HOURS;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.gson.JsonElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.AssessmentsApi;
+import org.sagebionetworks.bridge.rest.api.SharedAssessmentsApi;
+import org.sagebionetworks.bridge.rest.exceptions.BridgeSDKException;
+import org.sagebionetworks.bridge.rest.exceptions.EntityNotFoundException;
+import org.sagebionetworks.bridge.rest.model.Assessment;
+import org.sagebionetworks.bridge.rest.model.AssessmentConfig;
+import org.sagebionetworks.bridge.rest.model.ExternalResource;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Imports a catalog of assessments into the shared assessment library. The catalog is NDJSON, one entry per line:
+ *
+ * {"assessment": {...}, "resources": [{...}, ...], "config": {...}}
+ *
+ * Each entry goes through the stages create, resources, config, publish and (optionally) import back into an
+ * organization. Entries run concurrently on a bounded pool; the reader blocks when the pool's queue is full, so a
+ * large catalog is never held in memory all at once.
+ *
+ * Every stage checks the server before it acts, so running the same catalog again (after a failure part way
+ * through, say) skips the work that was already done. Calls that fail with a network error or a 5xx/429 response
+ * are retried with backoff. Each stage reports its own latency, throughput and errors.
+ */
+public class AssessmentImporter {
+    private static final Logger LOG = LoggerFactory.getLogger(AssessmentImporter.class);
+
+    static final String CREATE = "create";
+    static final String RESOURCES = "resources";
+    static final String CONFIG = "config";
+    static final String PUBLISH = "publish";
+    static final String IMPORT = "import";
+
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long RETRY_SLEEP_MILLIS = 250;
+    private static final int PAGE_SIZE = 100;
+
+    /** One line of the catalog. */
+    static final class CatalogEntry {
+        Assessment assessment;
+        List<ExternalResource> resources;
+        JsonElement config;
+    }
+
+    private final AssessmentsApi assessmentsApi;
+    private final SharedAssessmentsApi sharedApi;
+    private final int threadCount;
+    private final String importOwnerId;
+    private final String importSuffix;
+    private final Map<String, LatencyStats> stages = new LinkedHashMap<>();
+    private final Map<String, AtomicInteger> skipped = new LinkedHashMap<>();
+    private final AtomicInteger entryCount = new AtomicInteger();
+    private final AtomicInteger failedEntryCount = new AtomicInteger();
+
+    /**
+     * @param developer a developer who is a member of the organization that owns the catalog's assessments
+     * @param threadCount the number of entries imported at once
+     * @param importOwnerId if not null, each published assessment is imported back into this organization
+     * @param importSuffix appended to the identifier of each imported copy
+     */
+    public AssessmentImporter(TestUser developer, int threadCount, String importOwnerId, String importSuffix) {
+        checkNotNull(developer);
+        checkArgument(threadCount > 0, "threadCount must be positive");
+        checkArgument(importOwnerId == null || importSuffix != null, "importSuffix is required to import");
+        this.assessmentsApi = developer.getClient(AssessmentsApi.class);
+        this.sharedApi = developer.getClient(SharedAssessmentsApi.class);
+        this.threadCount = threadCount;
+        this.importOwnerId = importOwnerId;
+        this.importSuffix = importSuffix;
+        for (String stage : new String[] { CREATE, RESOURCES, CONFIG, PUBLISH, IMPORT }) {
+            stages.put(stage, new LatencyStats(stage));
+            skipped.put(stage, new AtomicInteger());
+        }
+    }
+
+    /**
+     * Import every entry in the catalog. Blocks until done; an entry that fails doesn't stop the others.
+     *
+     * @throws IllegalStateException if the import doesn't finish within an hour
+     */
+    public void importCatalog(Path catalog) throws IOException, InterruptedException {
+        // Callers run the task themselves when the queue is full, which keeps the reader from getting ahead.
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threadCount * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+        long start = System.nanoTime();
+        boolean finished = false;
+        try (BufferedReader reader = Files.newBufferedReader(catalog, UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                CatalogEntry entry = RestUtils.GSON.fromJson(line, CatalogEntry.class);
+                executor.execute(() -> importEntry(entry));
+            }
+        } finally {
+            executor.shutdown();
+            finished = executor.awaitTermination(1, HOURS);
+            if (!finished) {
+                executor.shutdownNow();
+            }
+        }
+        if (!finished) {
+            throw new IllegalStateException("Import did not finish within an hour; " + entryCount.get()
+                    + " entries started, " + failedEntryCount.get() + " failed");
+        }
+        LOG.info("Imported {} catalog entries ({} failed) in {}ms", entryCount.get(), failedEntryCount.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        for (String stage : stages.keySet()) {
+            LOG.info("{}, {} already done", stages.get(stage), skipped.get(stage).get());
+        }
+    }
+
+    void importEntry(CatalogEntry entry) {
+        entryCount.incrementAndGet();
+        String identifier = entry.assessment.getIdentifier();
+        try {
+            Assessment assessment = stage(CREATE, () -> create(entry.assessment));
+            stage(RESOURCES, () -> createResources(identifier, entry.resources));
+            stage(CONFIG, () -> updateConfig(assessment.getGuid(), entry.config));
+            Assessment shared = stage(PUBLISH, () -> publish(identifier));
+            if (importOwnerId != null) {
+                stage(IMPORT, () -> importShared(shared));
+            }
+        } catch (Exception e) {
+            failedEntryCount.incrementAndGet();
+            LOG.warn("Could not import assessment " + identifier + ": " + e.getMessage());
+        }
+    }
+
+    public Map<String, LatencyStats> getStages() {
+        return stages;
+    }
+
+    /** The number of entries for which this stage had nothing to do, because an earlier run already did it. */
+    public int getSkippedCount(String stage) {
+        return skipped.get(stage).get();
+    }
+
+    public int getFailedEntryCount() {
+        return failedEntryCount.get();
+    }
+
+    @FunctionalInterface
+    private interface Step<T> {
+        Result<T> run() throws Exception;
+    }
+
+    /** A stage's value, and whether an earlier run had already done the stage's work. */
+    private static final class Result<T> {
+        private final T value;
+        private final boolean skipped;
+
+        private Result(T value, boolean skipped) {
+            this.value = value;
+            this.skipped = skipped;
+        }
+
+        static <T> Result<T> done(T value) {
+            return new Result<>(value, false);
+        }
+
+        static <T> Result<T> skipped(T value) {
+            return new Result<>(value, true);
+        }
+    }
+
+    private <T> T stage(String stage, Step<T> step) throws Exception {
+        LatencyStats stats = stages.get(stage);
+        Result<T> result = stats.time(v -> withRetries(step));
+        if (result.skipped) {
+            skipped.get(stage).incrementAndGet();
+        }
+        return result.value;
+    }
+
+    private static <T> Result<T> withRetries(Step<T> step) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return step.run();
+            } catch (IOException | BridgeSDKException e) {
+                if (attempt >= MAX_ATTEMPTS || !isRetryable(e)) {
+                    throw e;
+                }
+                Thread.sleep(RETRY_SLEEP_MILLIS << (attempt - 1));
+            }
+        }
+    }
+
+    private static boolean isRetryable(Exception e) {
+        if (e instanceof BridgeSDKException) {
+            int status = ((BridgeSDKException) e).getStatusCode();
+            return status >= 500 || status == 429;
+        }
+        return true;
+    }
+
+    private Result<Assessment> create(Assessment assessment) throws IOException {
+        try {
+            Assessment existing = assessmentsApi.getLatestAssessmentRevision(assessment.getIdentifier()).execute()
+                    .body();
+            return Result.skipped(existing);
+        } catch (EntityNotFoundException e) {
+            return Result.done(assessmentsApi.createAssessment(assessment).execute().body());
+        }
+    }
+
+    private Result<Void> createResources(String identifier, List<ExternalResource> resources) throws IOException {
+        if (resources == null || resources.isEmpty()) {
+            return Result.skipped(null);
+        }
+        Set<String> existing = new HashSet<>();
+        int offset = 0;
+        while (true) {
+            List<ExternalResource> page = assessmentsApi.getAssessmentResources(identifier, offset, PAGE_SIZE,
+                    null, null, null, false).execute().body().getItems();
+            for (ExternalResource resource : page) {
+                existing.add(resourceKey(resource));
+            }
+            offset += page.size();
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+        }
+        List<ExternalResource> toCreate = new ArrayList<>();
+        for (ExternalResource resource : resources) {
+            if (!existing.contains(resourceKey(resource))) {
+                toCreate.add(resource);
+            }
+        }
+        for (ExternalResource resource : toCreate) {
+            assessmentsApi.createAssessmentResource(identifier, resource).execute();
+        }
+        return toCreate.isEmpty() ? Result.skipped(null) : Result.done(null);
+    }
+
+    private static String resourceKey(ExternalResource resource) {
+        return resource.getTitle() + "|" + resource.getUrl();
+    }
+
+    private Result<Void> updateConfig(String guid, JsonElement catalogConfig) throws IOException {
+        if (catalogConfig == null) {
+            return Result.skipped(null);
+        }
+        AssessmentConfig config = assessmentsApi.getAssessmentConfig(guid).execute().body();
+        if (catalogConfig.equals(RestUtils.toJSON(config.getConfig()))) {
+            return Result.skipped(null);
+        }
+        config.setConfig(catalogConfig);
+        assessmentsApi.updateAssessmentConfig(guid, config).execute();
+        return Result.done(null);
+    }
+
+    private Result<Assessment> publish(String identifier) throws IOException {
+        // Publishing sets the local assessment's originGuid to the shared copy.
+        Assessment local = assessmentsApi.getLatestAssessmentRevision(identifier).execute().body();
+        if (local.getOriginGuid() != null) {
+            return Result.skipped(sharedApi.getSharedAssessmentByGUID(local.getOriginGuid()).execute().body());
+        }
+        assessmentsApi.publishAssessment(local.getGuid(), null).execute();
+        return Result.done(sharedApi.getLatestSharedAssessmentRevision(identifier).execute().body());
+    }
+
+    private Result<Assessment> importShared(Assessment shared) throws IOException {
+        String newIdentifier = shared.getIdentifier() + importSuffix;
+        try {
+            Assessment existing = assessmentsApi.getLatestAssessmentRevision(newIdentifier).execute().body();
+            if (shared.getGuid().equals(existing.getOriginGuid())) {
+                return Result.skipped(existing);
+            }
+        } catch (EntityNotFoundException e) {
+            // not imported yet
+        }
+        return Result.done(sharedApi.importSharedAssessment(shared.getGuid(), importOwnerId, newIdentifier)
+                .execute().body());
+    }
+}
@@ -0,0 +1,142 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.sagebionetworks.bridge.rest.model.ResourceCategory.WEBSITE;
+import static org.sagebionetworks.bridge.rest.model.Role.DEVELOPER;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.ORG_ID_1;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.randomIdentifier;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonParser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.AssessmentsApi;
+import org.sagebionetworks.bridge.rest.api.OrganizationsApi;
+import org.sagebionetworks.bridge.rest.api.SharedAssessmentsApi;
+import org.sagebionetworks.bridge.rest.api.TagsApi;
+import org.sagebionetworks.bridge.rest.model.Assessment;
+import org.sagebionetworks.bridge.rest.model.AssessmentList;
+import org.sagebionetworks.bridge.rest.model.ExternalResource;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Imports a generated catalog into the shared library, then imports the same catalog again to show that a second
+ * run finds every stage already done.
+ */
+@Category(PerformanceTest.class)
+public class AssessmentImporterTest {
+    private static final int ASSESSMENT_COUNT = Integer.getInteger("perf.import.assessments", 100);
+    private static final int THREAD_COUNT = Integer.getInteger("perf.threads", 20);
+    private static final String IMPORT_SUFFIX = "-imported";
+    private static final int PAGE_SIZE = 100;
+
+    private TestUser developer;
+    private String markerTag;
+    private Path catalog;
+
+    @Before
+    public void before() throws Exception {
+        markerTag = "test:" + randomIdentifier(AssessmentImporterTest.class);
+        developer = new TestUserHelper.Builder(AssessmentImporterTest.class).withRoles(DEVELOPER)
+                .createAndSignInUser();
+        TestUserHelper.getSignedInAdmin().getClient(OrganizationsApi.class).addMember(ORG_ID_1,
+                developer.getUserId()).execute();
+        catalog = Files.createTempFile("assessment-catalog", ".ndjson");
+    }
+
+    @After
+    public void after() throws Exception {
+        if (developer != null) {
+            developer.signOutAndDeleteUser();
+        }
+        Files.deleteIfExists(catalog);
+
+        TestUser admin = TestUserHelper.getSignedInAdmin();
+        AssessmentsApi api = admin.getClient(AssessmentsApi.class);
+        SharedAssessmentsApi sharedApi = admin.getClient(SharedAssessmentsApi.class);
+        TeardownRegistry teardown = new TeardownRegistry(THREAD_COUNT);
+
+        // Local copies first, since they refer to the shared copies through their originGuid.
+        for (int offset = 0; ; offset += PAGE_SIZE) {
+            AssessmentList assessments = api.getAssessments(offset, PAGE_SIZE, ImmutableList.of(markerTag), true)
+                    .execute().body();
+            for (Assessment oneAssessment : assessments.getItems()) {
+                AssessmentList revisions = api.getAssessmentRevisionsById(
+                        oneAssessment.getIdentifier(), null, null, true).execute().body();
+                for (Assessment revision : revisions.getItems()) {
+                    teardown.register(revision.getGuid(), () -> api.deleteAssessment(revision.getGuid(), true)
+                            .execute());
+                }
+            }
+            if (assessments.getItems().size() < PAGE_SIZE) {
+                break;
+            }
+        }
+        teardown.deleteAll();
+        for (int offset = 0; ; offset += PAGE_SIZE) {
+            AssessmentList sharedAssessments = sharedApi.getSharedAssessments(offset, PAGE_SIZE,
+                    ImmutableList.of(markerTag), true).execute().body();
+            for (Assessment oneSharedAssessment : sharedAssessments.getItems()) {
+                AssessmentList revisions = sharedApi.getSharedAssessmentRevisionsById(
+                        oneSharedAssessment.getIdentifier(), null, null, true).execute().body();
+                for (Assessment revision : revisions.getItems()) {
+                    teardown.register(revision.getGuid(), () -> sharedApi.deleteSharedAssessment(
+                            revision.getGuid(), true).execute());
+                }
+            }
+            if (sharedAssessments.getItems().size() < PAGE_SIZE) {
+                break;
+            }
+        }
+        teardown.deleteAll();
+        admin.getClient(TagsApi.class).deleteTag(markerTag).execute();
+    }
+
+    @Test
+    public void importCatalogTwice() throws Exception {
+        writeCatalog();
+
+        AssessmentImporter firstRun = new AssessmentImporter(developer, THREAD_COUNT, ORG_ID_1, IMPORT_SUFFIX);
+        firstRun.importCatalog(catalog);
+        assertEquals(0, firstRun.getFailedEntryCount());
+        for (LatencyStats stats : firstRun.getStages().values()) {
+            assertEquals(stats.getName(), 0, stats.getErrorCount());
+        }
+
+        AssessmentImporter secondRun = new AssessmentImporter(developer, THREAD_COUNT, ORG_ID_1, IMPORT_SUFFIX);
+        secondRun.importCatalog(catalog);
+        assertEquals(0, secondRun.getFailedEntryCount());
+        for (String stage : secondRun.getStages().keySet()) {
+            assertEquals(stage, ASSESSMENT_COUNT, secondRun.getSkippedCount(stage));
+        }
+    }
+
+    private void writeCatalog() throws Exception {
+        String prefix = randomIdentifier(AssessmentImporterTest.class);
+        try (BufferedWriter writer = Files.newBufferedWriter(catalog, UTF_8)) {
+            for (int i = 0; i < ASSESSMENT_COUNT; i++) {
+                AssessmentImporter.CatalogEntry entry = new AssessmentImporter.CatalogEntry();
+                entry.assessment = new Assessment().identifier(prefix + "-" + i).title("Assessment " + i)
+                        .summary("Summary").osName("Android").ownerId(ORG_ID_1)
+                        .tags(ImmutableList.of(markerTag));
+                entry.resources = ImmutableList.of(new ExternalResource().title("Resource " + i)
+                        .url("https://www.synapse.org/" + i).category(WEBSITE).minRevision(1).maxRevision(1));
+                entry.config = new JsonParser().parse("[{\"identifier\":\"node1\",\"field1\":\"" + i
+                        + "\",\"type\":\"Type\"}]");
+                writer.write(RestUtils.GSON.toJson(entry));
+                writer.newLine();
+            }
+        }
+    }
+}
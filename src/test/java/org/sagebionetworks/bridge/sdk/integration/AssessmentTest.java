@@ -6,11 +6,10 @@ import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.sagebionetworks.bridge.rest.model.Role.DEVELOPER;
-import static org.sagebionetworks.bridge.sdk.integration.Tests.API_SIGNIN;
 import static org.sagebionetworks.bridge.sdk.integration.Tests.ORG_ID_1;
 import static org.sagebionetworks.bridge.sdk.integration.Tests.ORG_ID_2;
-import static org.sagebionetworks.bridge.sdk.integration.Tests.SHARED_SIGNIN;
 import static org.sagebionetworks.bridge.sdk.integration.Tests.randomIdentifier;
+import static org.sagebionetworks.bridge.util.IntegTestUtils.SHARED_APP_ID;
 import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_ID;
 
 import java.io.IOException;
@@ -30,7 +29,6 @@ import org.junit.Test;
 
 import org.sagebionetworks.bridge.rest.api.AssessmentsApi;
 import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
-import org.sagebionetworks.bridge.rest.api.ForSuperadminsApi;
 import org.sagebionetworks.bridge.rest.api.OrganizationsApi;
 import org.sagebionetworks.bridge.rest.api.SharedAssessmentsApi;
 import org.sagebionetworks.bridge.rest.api.TagsApi;
@@ -333,8 +331,7 @@ public class AssessmentTest {
         }
         
         TestUser admin = TestUserHelper.getSignedInAdmin();
-        ForSuperadminsApi superAdminApi = admin.getClient(ForSuperadminsApi.class);
-        SharedAssessmentsApi adminSharedApi = admin.getClient(SharedAssessmentsApi.class);
+        SharedAssessmentsApi adminSharedApi = AdminSessionPool.getClient(SHARED_APP_ID, SharedAssessmentsApi.class);
 
         // Import a shared assessment back into the app
         Assessment newAssessment = sharedApi.importSharedAssessment(shared.getGuid(), 
@@ -361,23 +358,18 @@ public class AssessmentTest {
         for (Assessment revision : revisions.getItems()) {
             adminAssessmentsApi.deleteAssessment(revision.getGuid(), true).execute();
         }
-        try {
-            superAdminApi.adminChangeApp(SHARED_SIGNIN).execute();
-            // test logical delete of shared assessments
-            adminSharedApi.deleteSharedAssessment(shared.getGuid(), false).execute().body();
-            
-            list = sharedApi.getSharedAssessments(null, null, ImmutableList.of(markerTag), false).execute().body();
-            assertEquals(Integer.valueOf(0), list.getTotal());
-            assertTrue(list.getItems().isEmpty());
-            
-            list = sharedApi.getSharedAssessments(null, null, ImmutableList.of(markerTag), true).execute().body();
-            assertEquals(Integer.valueOf(1), list.getTotal());
-            assertEquals(1, list.getItems().size());
-            
-            adminSharedApi.deleteSharedAssessment(shared.getGuid(), true).execute().body();
-        } finally {
-            superAdminApi.adminChangeApp(API_SIGNIN).execute();
-        }
+        // test logical delete of shared assessments
+        adminSharedApi.deleteSharedAssessment(shared.getGuid(), false).execute().body();
+        
+        list = sharedApi.getSharedAssessments(null, null, ImmutableList.of(markerTag), false).execute().body();
+        assertEquals(Integer.valueOf(0), list.getTotal());
+        assertTrue(list.getItems().isEmpty());
+        
+        list = sharedApi.getSharedAssessments(null, null, ImmutableList.of(markerTag), true).execute().body();
+        assertEquals(Integer.valueOf(1), list.getTotal());
+        assertEquals(1, list.getItems().size());
+        
+        adminSharedApi.deleteSharedAssessment(shared.getGuid(), true).execute().body();
         // Should all be gone...
         list = sharedApi.getSharedAssessments(null, null, ImmutableList.of(markerTag), true).execute().body();
         assertTrue(list.getItems().isEmpty());
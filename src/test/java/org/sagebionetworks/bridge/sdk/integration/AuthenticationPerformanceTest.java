@@ -0,0 +1,178 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertTrue;
+import static org.sagebionetworks.bridge.rest.model.Role.WORKER;
+import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_ID;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.ApiClientProvider;
+import org.sagebionetworks.bridge.rest.Config;
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.AuthenticationApi;
+import org.sagebionetworks.bridge.rest.api.ForSuperadminsApi;
+import org.sagebionetworks.bridge.rest.model.App;
+import org.sagebionetworks.bridge.rest.model.SignIn;
+import org.sagebionetworks.bridge.rest.model.SignUp;
+import org.sagebionetworks.bridge.rest.model.UserSessionInfo;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Sustained sign-in load across the flows covered one at a time by SignInTest, AuthenticationTest, OAuthTest and
+ * ReauthenticationTest. Phone sign-in is not included because it needs an SMS round trip per sign-in.
+ *
+ * The server caches a reauthentication token for REAUTH_CACHE_IN_MILLIS after it is used, and returns the same
+ * session if the token is presented again in that window. We measure reauthentication that hits this cache
+ * (presenting the same token repeatedly) separately from reauthentication that rotates a fresh token every time.
+ */
+@Category(PerformanceTest.class)
+public class AuthenticationPerformanceTest {
+    private static final Logger LOG = LoggerFactory.getLogger(AuthenticationPerformanceTest.class);
+
+    private static final int REAUTH_CACHE_IN_MILLIS = 15000;
+    private static final int USER_COUNT = Integer.getInteger("perf.auth.users", 50);
+    private static final int SIGN_IN_COUNT = Integer.getInteger("perf.auth.signIns", 1000);
+    private static final int SYNAPSE_SIGN_IN_COUNT = Integer.getInteger("perf.auth.synapseSignIns", 50);
+    private static final int THREAD_COUNT = Integer.getInteger("perf.threads", 20);
+
+    private List<TestUser> users;
+    private TestUser worker;
+    private AuthenticationApi authApi;
+
+    @BeforeClass
+    public static void turnOnReauthentication() throws Exception {
+        setReauthenticationEnabled(true);
+    }
+
+    @AfterClass
+    public static void turnOffReauthentication() throws Exception {
+        setReauthenticationEnabled(false);
+    }
+
+    private static void setReauthenticationEnabled(boolean enabled) throws Exception {
+        ForSuperadminsApi superadminApi = TestUserHelper.getSignedInAdmin().getClient(ForSuperadminsApi.class);
+        App app = superadminApi.getApp(TEST_APP_ID).execute().body();
+        app.setReauthenticationEnabled(enabled);
+        superadminApi.updateApp(TEST_APP_ID, app).execute();
+    }
+
+    @Before
+    public void before() throws Exception {
+        TestUser admin = TestUserHelper.getSignedInAdmin();
+        users = new ArrayList<>();
+        for (int i = 0; i < USER_COUNT; i++) {
+            users.add(TestUserHelper.createAndSignInUser(AuthenticationPerformanceTest.class, true));
+        }
+        // One unauthenticated client for all the sign-in calls, the way a gateway would make them.
+        String userAgent = RestUtils.getUserAgent(admin.getClientManager().getClientInfo());
+        String lang = RestUtils.getAcceptLanguage(admin.getClientManager().getAcceptedLanguages());
+        authApi = new ApiClientProvider(admin.getClientManager().getHostUrl(), userAgent, lang, TEST_APP_ID)
+                .getClient(AuthenticationApi.class);
+    }
+
+    @After
+    public void after() throws Exception {
+        for (TestUser user : users) {
+            user.signOutAndDeleteUser();
+        }
+        if (worker != null) {
+            worker.signOutAndDeleteUser();
+        }
+    }
+
+    @Test
+    public void passwordSignIn() throws Exception {
+        LatencyStats stats = new LatencyStats("signInV4 (password)");
+        stats.runConcurrently(THREAD_COUNT, SIGN_IN_COUNT,
+                i -> authApi.signInV4(users.get(i % USER_COUNT).getSignIn()).execute().body());
+        report(stats);
+    }
+
+    @Test
+    public void reauthentication() throws Exception {
+        AtomicReferenceArray<String> reauthTokens = new AtomicReferenceArray<>(USER_COUNT);
+        for (int i = 0; i < USER_COUNT; i++) {
+            reauthTokens.set(i, users.get(i).getSession().getReauthToken());
+        }
+
+        // Within the cache window, presenting the same token again returns the cached session.
+        LatencyStats cached = new LatencyStats("reauthenticate (same token, within cache window)");
+        long start = System.currentTimeMillis();
+        cached.runConcurrently(THREAD_COUNT, SIGN_IN_COUNT, i -> {
+            int userIndex = i % USER_COUNT;
+            return authApi.reauthenticate(reauthSignIn(userIndex, reauthTokens.get(userIndex))).execute().body();
+        });
+        long windowMillis = System.currentTimeMillis() - start;
+        if (windowMillis > REAUTH_CACHE_IN_MILLIS) {
+            LOG.warn("Cached reauthentication run took {}ms, longer than the {}ms cache window; some calls "
+                    + "will have rotated tokens instead", windowMillis, REAUTH_CACHE_IN_MILLIS);
+        }
+
+        // Let every cached token expire, then rotate to a new token on every call. Calls for one user are
+        // serialized so each presents the token returned by the previous call.
+        Thread.sleep(REAUTH_CACHE_IN_MILLIS + 1000);
+        for (int i = 0; i < USER_COUNT; i++) {
+            TestUser user = users.get(i);
+            user.signInAgain();
+            reauthTokens.set(i, user.getSession().getReauthToken());
+        }
+        LatencyStats rotated = new LatencyStats("reauthenticate (rotated token)");
+        rotated.runConcurrently(THREAD_COUNT, SIGN_IN_COUNT, i -> {
+            int userIndex = i % USER_COUNT;
+            synchronized (users.get(userIndex)) {
+                UserSessionInfo session = authApi.reauthenticate(
+                        reauthSignIn(userIndex, reauthTokens.get(userIndex))).execute().body();
+                reauthTokens.set(userIndex, session.getReauthToken());
+                return session;
+            }
+        });
+        report(cached);
+        report(rotated);
+    }
+
+    @Test
+    public void synapseSignIn() throws Exception {
+        TestUser admin = TestUserHelper.getSignedInAdmin();
+        Config config = admin.getConfig();
+        String synapseUserId = config.get("synapse.test.user.id");
+        String userEmail = config.get("synapse.test.user");
+        String userPassword = config.get("synapse.test.user.password");
+        Assume.assumeTrue("Synapse test account not configured", userEmail != null && userPassword != null);
+
+        worker = TestUserHelper.createAndSignInUser(AuthenticationPerformanceTest.class, true,
+                new SignUp().roles(ImmutableList.of(WORKER)).synapseUserId(synapseUserId));
+        worker.signOut();
+
+        // There's only one Synapse test account, and Synapse itself rate limits, so this runs with fewer threads.
+        SignIn signIn = new SignIn().appId(TEST_APP_ID).email(userEmail).password(userPassword);
+        LatencyStats stats = new LatencyStats("signInWithSynapse");
+        stats.runConcurrently(Math.min(THREAD_COUNT, 4), SYNAPSE_SIGN_IN_COUNT,
+                i -> RestUtils.signInWithSynapse(authApi, signIn));
+        report(stats);
+    }
+
+    private SignIn reauthSignIn(int userIndex, String reauthToken) {
+        TestUser user = users.get(userIndex);
+        return new SignIn().appId(user.getAppId()).email(user.getEmail()).reauthToken(reauthToken);
+    }
+
+    private void report(LatencyStats stats) {
+        LOG.info(stats.toString());
+        assertTrue(stats.getName() + " had no successful calls", stats.getCount() > 0);
+    }
+}
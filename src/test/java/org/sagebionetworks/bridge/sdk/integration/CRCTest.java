@@ -53,7 +53,6 @@ import org.sagebionetworks.bridge.rest.model.StudyParticipant;
 import org.sagebionetworks.bridge.user.TestUserHelper;
 import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
 
-import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.parser.IParser;
 
 /**
@@ -64,7 +63,6 @@ public class CRCTest {
 
     static final LocalDate JAN1 = LocalDate.parse("1970-01-01");
     static final LocalDate JAN2 = LocalDate.parse("1970-01-02");
-    static final FhirContext CONTEXT = FhirContext.forDstu3();
     static final String TEST_EMAIL = "bridge-testing+crc@sagebase.org";
     static final List<String> WORKFLOW_TAGS = ImmutableList.of("enrolled", "selected", 
             "declined", "tests_requested", "tests_scheduled", "tests_collected", "tests_available");
@@ -163,7 +161,7 @@ public class CRCTest {
 //        locComp.setActor(locRef);
 //        appointment.addParticipant(locComp);
         
-        IParser parser = CONTEXT.newJsonParser();
+        IParser parser = FhirParserPool.jsonParser();
         String body = parser.encodeResourceToString(appointment);
         
         HttpResponse response = Request.Put(host + "/v1/cuimc/appointments")
@@ -270,7 +268,7 @@ public class CRCTest {
         ref.setIdentifier(id);
         procedure.setSubject(ref);
         
-        IParser parser = CONTEXT.newJsonParser();
+        IParser parser = FhirParserPool.jsonParser();
         String body = parser.encodeResourceToString(procedure);
         
         HttpResponse response = Request.Put(host + "/v1/cuimc/procedurerequests")
@@ -339,7 +337,7 @@ public class CRCTest {
     public void createObservation() throws Exception {
         Observation observation = makeObservation("484670513", "Positive");
         
-        IParser parser = CONTEXT.newJsonParser();
+        IParser parser = FhirParserPool.jsonParser();
         String body = parser.encodeResourceToString(observation);
         
         HttpResponse response = Request.Put(host + "/v1/cuimc/observations")
@@ -381,7 +379,7 @@ public class CRCTest {
     public void createUnknownObservationType() throws Exception {
         Observation observation = makeObservation("111110111", "Positive");
         
-        IParser parser = CONTEXT.newJsonParser();
+        IParser parser = FhirParserPool.jsonParser();
         String body = parser.encodeResourceToString(observation);
         
         HttpResponse response = Request.Put(host + "/v1/cuimc/observations")
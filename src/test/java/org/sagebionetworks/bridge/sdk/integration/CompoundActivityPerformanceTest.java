@@ -0,0 +1,235 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.sagebionetworks.bridge.rest.model.Role.DEVELOPER;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.CompoundActivityDefinitionsApi;
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.SchedulesApi;
+import org.sagebionetworks.bridge.rest.api.StudiesApi;
+import org.sagebionetworks.bridge.rest.api.SurveysApi;
+import org.sagebionetworks.bridge.rest.api.UploadSchemasApi;
+import org.sagebionetworks.bridge.rest.model.Activity;
+import org.sagebionetworks.bridge.rest.model.CompoundActivity;
+import org.sagebionetworks.bridge.rest.model.CompoundActivityDefinition;
+import org.sagebionetworks.bridge.rest.model.Criteria;
+import org.sagebionetworks.bridge.rest.model.CriteriaScheduleStrategy;
+import org.sagebionetworks.bridge.rest.model.Enrollment;
+import org.sagebionetworks.bridge.rest.model.GuidCreatedOnVersionHolder;
+import org.sagebionetworks.bridge.rest.model.Schedule;
+import org.sagebionetworks.bridge.rest.model.ScheduleCriteria;
+import org.sagebionetworks.bridge.rest.model.SchedulePlan;
+import org.sagebionetworks.bridge.rest.model.ScheduleType;
+import org.sagebionetworks.bridge.rest.model.ScheduledActivityListV4;
+import org.sagebionetworks.bridge.rest.model.SchemaReference;
+import org.sagebionetworks.bridge.rest.model.Study;
+import org.sagebionetworks.bridge.rest.model.Survey;
+import org.sagebionetworks.bridge.rest.model.SurveyReference;
+import org.sagebionetworks.bridge.rest.model.UploadFieldDefinition;
+import org.sagebionetworks.bridge.rest.model.UploadFieldType;
+import org.sagebionetworks.bridge.rest.model.UploadSchema;
+import org.sagebionetworks.bridge.rest.model.UploadSchemaType;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Creates compound activity definitions with more and more schema and survey references, schedules each one four
+ * times a day (as in ScheduledActivityTest.compoundDailyTask), and measures getScheduledActivitiesByDateRange
+ * latency and response size. The scheduled compound activity only names the task, so the server has to resolve
+ * the definition and each of its references for every activity instance; the references name the schema or
+ * survey without a revision, so each is resolved to the latest one too.
+ *
+ * The plans only apply to participants of a study created for the test, so other tests don't see the
+ * activities. Run with -Pcompound-activity-benchmark for the fixed sizes used to compare runs.
+ */
+@Category(PerformanceTest.class)
+public class CompoundActivityPerformanceTest {
+    private static final Logger LOG = LoggerFactory.getLogger(CompoundActivityPerformanceTest.class);
+
+    private static final int MAX_REFERENCES = Integer.getInteger("perf.compound.maxReferences", 50);
+    private static final int WINDOW_DAYS = Integer.getInteger("perf.compound.windowDays", 14);
+    private static final int CALLS_PER_STEP = Integer.getInteger("perf.compound.calls", 50);
+    private static final int THREAD_COUNT = Integer.getInteger("perf.threads", 20);
+    private static final List<Integer> REFERENCE_STEPS = ImmutableList.of(1, 5, 10, 25, 50, 100);
+    private static final List<String> TIMES = ImmutableList.of("08:00", "12:00", "16:00", "20:00");
+
+    private TestUser admin;
+    private TestUser developer;
+    private List<TestUser> users;
+    private String studyId;
+    private List<UploadSchema> schemas;
+    private List<GuidCreatedOnVersionHolder> surveyKeys;
+    private List<SurveyReference> surveyRefs;
+    private List<String> taskIds;
+    private List<String> planGuids;
+
+    @Before
+    public void before() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        developer = TestUserHelper.createAndSignInUser(CompoundActivityPerformanceTest.class, false, DEVELOPER);
+        schemas = new ArrayList<>();
+        surveyKeys = new ArrayList<>();
+        surveyRefs = new ArrayList<>();
+        users = new ArrayList<>();
+        taskIds = new ArrayList<>();
+        planGuids = new ArrayList<>();
+
+        studyId = Tests.randomIdentifier(CompoundActivityPerformanceTest.class);
+        admin.getClient(StudiesApi.class).createStudy(new Study().identifier(studyId).name(studyId)).execute();
+
+        UploadSchemasApi schemasApi = developer.getClient(UploadSchemasApi.class);
+        SurveysApi surveysApi = developer.getClient(SurveysApi.class);
+        for (int i = 0; i < (MAX_REFERENCES + 1) / 2; i++) {
+            UploadFieldDefinition fieldDef = new UploadFieldDefinition().name("field").type(UploadFieldType.STRING);
+            UploadSchema schema = new UploadSchema().name("Schema " + i)
+                    .schemaId(Tests.randomIdentifier(CompoundActivityPerformanceTest.class))
+                    .schemaType(UploadSchemaType.IOS_DATA).fieldDefinitions(Lists.newArrayList(fieldDef));
+            schemas.add(schemasApi.createUploadSchema(schema).execute().body());
+        }
+        for (int i = 0; i < MAX_REFERENCES / 2; i++) {
+            Survey survey = TestSurvey.getSurvey(CompoundActivityPerformanceTest.class);
+            GuidCreatedOnVersionHolder keys = surveysApi.createSurvey(survey).execute().body();
+            surveysApi.publishSurvey(keys.getGuid(), keys.getCreatedOn(), false).execute();
+            surveyKeys.add(keys);
+            surveyRefs.add(new SurveyReference().identifier(survey.getIdentifier()).guid(keys.getGuid()));
+        }
+    }
+
+    @After
+    public void after() throws Exception {
+        ForAdminsApi adminsApi = admin.getClient(ForAdminsApi.class);
+        SchedulesApi schedulesApi = admin.getClient(SchedulesApi.class);
+        CompoundActivityDefinitionsApi definitionsApi = admin.getClient(CompoundActivityDefinitionsApi.class);
+        UploadSchemasApi schemasApi = admin.getClient(UploadSchemasApi.class);
+        SurveysApi surveysApi = admin.getClient(SurveysApi.class);
+        TeardownRegistry teardown = new TeardownRegistry(THREAD_COUNT);
+
+        String study = teardown.register("study:" + studyId, () -> adminsApi.deleteStudy(studyId, true).execute());
+        List<String> references = new ArrayList<>();
+        for (UploadSchema schema : schemas) {
+            references.add(teardown.register("schema:" + schema.getSchemaId(), () -> schemasApi
+                    .deleteUploadSchema(schema.getSchemaId(), schema.getRevision(), true).execute()));
+        }
+        for (GuidCreatedOnVersionHolder keys : surveyKeys) {
+            references.add(teardown.register("survey:" + keys.getGuid(), () -> surveysApi
+                    .deleteSurvey(keys.getGuid(), keys.getCreatedOn(), true).execute()));
+        }
+        List<String> definitions = new ArrayList<>();
+        for (String taskId : taskIds) {
+            definitions.add(teardown.register("task:" + taskId, () -> definitionsApi
+                    .deleteCompoundActivityDefinition(taskId).execute(), references.toArray(new String[0])));
+        }
+        definitions.add(study);
+        for (String guid : planGuids) {
+            teardown.register("plan:" + guid, () -> schedulesApi.deleteSchedulePlan(guid, true).execute(),
+                    definitions.toArray(new String[0]));
+        }
+        for (TestUser user : users) {
+            teardown.register("user:" + user.getUserId(), user::signOutAndDeleteUser, study);
+        }
+        if (developer != null) {
+            teardown.register("user:" + developer.getUserId(), developer::signOutAndDeleteUser);
+        }
+        teardown.deleteAll();
+    }
+
+    @Test
+    public void scheduledActivitiesAsReferencesGrow() throws Exception {
+        // Fixed to the start of the day, so each step schedules the same instances.
+        DateTime startsOn = DateTime.now(DateTimeZone.UTC).withTimeAtStartOfDay();
+        DateTime endsOn = startsOn.plusDays(WINDOW_DAYS);
+
+        for (int references : REFERENCE_STEPS) {
+            if (references > MAX_REFERENCES) {
+                break;
+            }
+            // One plan at a time, and a new participant each step, so each step sees only its own definition.
+            if (!planGuids.isEmpty()) {
+                developer.getClient(SchedulesApi.class).deleteSchedulePlan(planGuids.get(planGuids.size() - 1),
+                        false).execute();
+            }
+            String taskId = createDefinition(references);
+            createPlan(taskId);
+            ForConsentedUsersApi usersApi = createParticipant().getClient(ForConsentedUsersApi.class);
+
+            LatencyStats stats = new LatencyStats("getScheduledActivitiesByDateRange (" + references
+                    + " references, " + WINDOW_DAYS + " days)");
+            stats.runConcurrently(THREAD_COUNT, CALLS_PER_STEP, i -> usersApi.getScheduledActivitiesByDateRange(
+                    startsOn, endsOn).execute().body());
+
+            ScheduledActivityListV4 list = usersApi.getScheduledActivitiesByDateRange(startsOn, endsOn).execute()
+                    .body();
+            long instances = list.getItems().stream().filter(activity -> activity.getActivity()
+                    .getCompoundActivity() != null).count();
+            int bytes = RestUtils.GSON.toJson(list).getBytes(UTF_8).length;
+            LOG.info("{}, {} compound instances, {} bytes", stats, instances, bytes);
+            assertEquals(0, stats.getErrorCount());
+        }
+    }
+
+    // About half schema references and half survey references.
+    private String createDefinition(int references) throws Exception {
+        List<SchemaReference> schemaList = new ArrayList<>();
+        List<SurveyReference> surveyList = new ArrayList<>();
+        for (int i = 0; i < references; i++) {
+            if (i % 2 == 0) {
+                schemaList.add(new SchemaReference().id(schemas.get(i / 2).getSchemaId()));
+            } else {
+                surveyList.add(surveyRefs.get(i / 2));
+            }
+        }
+        String taskId = Tests.randomIdentifier(CompoundActivityPerformanceTest.class) + "-" + references;
+        CompoundActivityDefinition definition = new CompoundActivityDefinition().taskId(taskId)
+                .schemaList(schemaList).surveyList(surveyList);
+        developer.getClient(CompoundActivityDefinitionsApi.class).createCompoundActivityDefinition(definition)
+                .execute();
+        taskIds.add(taskId);
+        return taskId;
+    }
+
+    private TestUser createParticipant() throws Exception {
+        TestUser user = TestUserHelper.createAndSignInUser(CompoundActivityPerformanceTest.class, true);
+        users.add(user);
+        admin.getClient(StudiesApi.class).enrollParticipant(studyId, new Enrollment().userId(user.getUserId()))
+                .execute();
+        user.signInAgain();
+        return user;
+    }
+
+    private void createPlan(String taskId) throws Exception {
+        Schedule schedule = new Schedule();
+        schedule.setLabel("Four times daily compound task");
+        schedule.setExpires("P1D");
+        schedule.setInterval("P1D");
+        schedule.setScheduleType(ScheduleType.RECURRING);
+        schedule.setTimes(TIMES);
+        schedule.setActivities(ImmutableList.of(new Activity().label(taskId)
+                .compoundActivity(new CompoundActivity().taskIdentifier(taskId))));
+
+        CriteriaScheduleStrategy strategy = new CriteriaScheduleStrategy();
+        strategy.setScheduleCriteria(ImmutableList.of(new ScheduleCriteria()
+                .criteria(new Criteria().allOfStudyIds(ImmutableList.of(studyId))).schedule(schedule)));
+        SchedulePlan plan = new SchedulePlan();
+        plan.setLabel(CompoundActivityPerformanceTest.class.getSimpleName() + " " + taskId);
+        plan.setStrategy(strategy);
+        planGuids.add(developer.getClient(SchedulesApi.class).createSchedulePlan(plan).execute().body()
+                .getGuid());
+    }
+}
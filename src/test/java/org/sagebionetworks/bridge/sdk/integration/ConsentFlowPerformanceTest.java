@@ -0,0 +1,166 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.sagebionetworks.bridge.rest.model.Role.DEVELOPER;
+import static org.sagebionetworks.bridge.rest.model.SharingScope.ALL_QUALIFIED_RESEARCHERS;
+import static org.sagebionetworks.bridge.rest.model.SharingScope.NO_SHARING;
+import static org.sagebionetworks.bridge.rest.model.SharingScope.SPONSORS_AND_PARTNERS;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import org.joda.time.LocalDate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.StudiesApi;
+import org.sagebionetworks.bridge.rest.api.SubpopulationsApi;
+import org.sagebionetworks.bridge.rest.exceptions.ConsentRequiredException;
+import org.sagebionetworks.bridge.rest.model.ConsentSignature;
+import org.sagebionetworks.bridge.rest.model.Criteria;
+import org.sagebionetworks.bridge.rest.model.Enrollment;
+import org.sagebionetworks.bridge.rest.model.StudyParticipant;
+import org.sagebionetworks.bridge.rest.model.Study;
+import org.sagebionetworks.bridge.rest.model.Subpopulation;
+import org.sagebionetworks.bridge.rest.model.Withdrawal;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Drives many users at once through the consent flow that ConsentTest covers for one user: sign-up, sign-in,
+ * consent to every subpopulation, a sharing scope change, and withdrawal from every subpopulation. Each step has
+ * its own latency statistics.
+ *
+ * The test's subpopulations only apply to participants of a study created for the test, so the extra required
+ * consents don't affect other tests running against the app. Sending the signed consent is asynchronous and the
+ * server doesn't expose its queue, so we time resendConsentAgreement under the same load instead; it renders the
+ * consent document and queues the message, which is the work each signature adds to the backlog.
+ */
+@Category(PerformanceTest.class)
+public class ConsentFlowPerformanceTest {
+    private static final Logger LOG = LoggerFactory.getLogger(ConsentFlowPerformanceTest.class);
+
+    private static final int USER_COUNT = Integer.getInteger("perf.consent.users", 1000);
+    private static final int REQUIRED_SUBPOPS = Integer.getInteger("perf.consent.required", 2);
+    private static final int OPTIONAL_SUBPOPS = Integer.getInteger("perf.consent.optional", 2);
+    private static final int THREAD_COUNT = Integer.getInteger("perf.threads", 20);
+
+    private TestUser admin;
+    private TestUser developer;
+    private String studyId;
+    private List<String> subpopGuids;
+    private List<TestUser> users;
+
+    @Before
+    public void before() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        developer = TestUserHelper.createAndSignInUser(ConsentFlowPerformanceTest.class, false, DEVELOPER);
+        subpopGuids = new ArrayList<>();
+        users = new ArrayList<>();
+
+        studyId = Tests.randomIdentifier(ConsentFlowPerformanceTest.class);
+        admin.getClient(StudiesApi.class).createStudy(new Study().identifier(studyId).name(studyId)).execute();
+
+        SubpopulationsApi subpopsApi = developer.getClient(SubpopulationsApi.class);
+        for (int i = 0; i < REQUIRED_SUBPOPS + OPTIONAL_SUBPOPS; i++) {
+            boolean required = i < REQUIRED_SUBPOPS;
+            Subpopulation subpop = new Subpopulation();
+            subpop.setName((required ? "Required" : "Optional") + " consent " + i);
+            subpop.setRequired(required);
+            subpop.setCriteria(new Criteria().allOfStudyIds(ImmutableList.of(studyId)));
+            subpopGuids.add(subpopsApi.createSubpopulation(subpop).execute().body().getGuid());
+        }
+    }
+
+    @After
+    public void after() throws Exception {
+        ForAdminsApi adminsApi = admin.getClient(ForAdminsApi.class);
+        TeardownRegistry teardown = new TeardownRegistry(THREAD_COUNT);
+
+        String study = teardown.register("study:" + studyId, () -> adminsApi.deleteStudy(studyId, true).execute());
+        for (String guid : subpopGuids) {
+            teardown.register("subpop:" + guid, () -> adminsApi.deleteSubpopulation(guid, true).execute(), study);
+        }
+        for (TestUser user : users) {
+            teardown.register("user:" + user.getUserId(), user::signOutAndDeleteUser, study);
+        }
+        if (developer != null) {
+            teardown.register("user:" + developer.getUserId(), developer::signOutAndDeleteUser);
+        }
+        teardown.deleteAll();
+    }
+
+    @Test
+    public void consentFlowUnderLoad() throws Exception {
+        StudiesApi studiesApi = admin.getClient(StudiesApi.class);
+
+        LatencyStats signUp = new LatencyStats("sign up + enroll");
+        LatencyStats signIn = new LatencyStats("sign in (consent required)");
+        LatencyStats consent = new LatencyStats("createConsentSignature");
+        LatencyStats resend = new LatencyStats("resendConsentAgreement");
+        LatencyStats sharing = new LatencyStats("updateUsersParticipantRecord (sharing scope)");
+        LatencyStats withdraw = new LatencyStats("withdrawConsentFromSubpopulation");
+        LatencyStats flow = new LatencyStats("whole flow, per user");
+
+        flow.runConcurrently(THREAD_COUNT, USER_COUNT, i -> {
+            TestUser user = signUp.time(v -> {
+                TestUser created = new TestUserHelper.Builder(ConsentFlowPerformanceTest.class)
+                        .withConsentUser(false).createUser();
+                synchronized (users) {
+                    users.add(created);
+                }
+                studiesApi.enrollParticipant(studyId, new Enrollment().userId(created.getUserId())).execute();
+                return created;
+            });
+            signIn.time(v -> {
+                try {
+                    return user.signInAgain();
+                } catch (ConsentRequiredException e) {
+                    // Expected; the client still holds the session.
+                    return e.getSession();
+                }
+            });
+            ForConsentedUsersApi usersApi = user.getClient(ForConsentedUsersApi.class);
+            ConsentSignature signature = new ConsentSignature().name("Test User").scope(NO_SHARING)
+                    .birthdate(LocalDate.parse("1970-04-04"));
+            for (String guid : allSubpopGuids(user)) {
+                consent.time(v -> usersApi.createConsentSignature(guid, signature).execute());
+            }
+            resend.time(v -> usersApi.resendConsentAgreement(user.getDefaultSubpopulation()).execute());
+
+            for (int j = 0; j < 2; j++) {
+                StudyParticipant participant = new StudyParticipant()
+                        .sharingScope((i + j) % 2 == 0 ? SPONSORS_AND_PARTNERS : ALL_QUALIFIED_RESEARCHERS);
+                sharing.time(v -> usersApi.updateUsersParticipantRecord(participant).execute());
+            }
+
+            // Optional subpopulations first; the default consent goes last, as in giveConsentAndWithdrawTwice.
+            Withdrawal withdrawal = new Withdrawal().reason("Performance test.");
+            for (String guid : ImmutableList.copyOf(allSubpopGuids(user)).reverse()) {
+                withdraw.time(v -> usersApi.withdrawConsentFromSubpopulation(guid, withdrawal).execute());
+            }
+            return user;
+        });
+
+        for (LatencyStats stats : ImmutableList.of(signUp, signIn, consent, resend, sharing, withdraw, flow)) {
+            LOG.info(stats.toString());
+        }
+        assertEquals(0, flow.getErrorCount());
+        assertEquals(USER_COUNT * (REQUIRED_SUBPOPS + OPTIONAL_SUBPOPS + 1), consent.getCount());
+    }
+
+    // The default subpopulation, then the required ones, then the optional ones.
+    private List<String> allSubpopGuids(TestUser user) {
+        List<String> guids = new ArrayList<>();
+        guids.add(user.getDefaultSubpopulation());
+        guids.addAll(subpopGuids);
+        return guids;
+    }
+}
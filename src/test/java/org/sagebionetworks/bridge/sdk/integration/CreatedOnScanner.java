@@ -0,0 +1,148 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+
+/**
+ * Reads every item in a time range from an API that takes a start and end time and returns everything in between
+ * in one response, with no paging (getHealthDataByCreatedOn). The range is split into windows no wider than the
+ * given width, which are fetched concurrently and handed to the caller in time order, on the caller's thread. At
+ * most bufferWindows windows are fetched ahead of the caller, so a download of years of data never holds more than
+ * a few windows in memory. getMaxItemsHeld reports how many items that came to.
+ *
+ * Both ends of a window are inclusive, so each window ends a millisecond before the next one starts.
+ */
+public class CreatedOnScanner<T> {
+
+    @FunctionalInterface
+    public interface WindowFetcher<T> {
+        List<T> fetch(DateTime start, DateTime end) throws Exception;
+    }
+
+    private final WindowFetcher<T> fetcher;
+    private final Duration window;
+    private final int threadCount;
+    private final int bufferWindows;
+    private final LatencyStats windowStats;
+    private final AtomicInteger itemsHeld = new AtomicInteger();
+    private final AtomicInteger maxItemsHeld = new AtomicInteger();
+    private int itemCount;
+    private long elapsedNanos;
+
+    /**
+     * @param name used to label the window fetch statistics
+     * @param fetcher reads one window
+     * @param window the widest window to request; keep it under any range limit the server has
+     * @param threadCount the number of windows fetched at once
+     * @param bufferWindows the most windows fetched ahead of the caller; at least threadCount
+     */
+    public CreatedOnScanner(String name, WindowFetcher<T> fetcher, Duration window, int threadCount,
+            int bufferWindows) {
+        checkNotNull(fetcher);
+        checkNotNull(window);
+        checkArgument(window.getMillis() > 0, "window must be positive");
+        checkArgument(threadCount > 0, "threadCount must be positive");
+        checkArgument(bufferWindows >= threadCount, "bufferWindows must be at least threadCount");
+        this.fetcher = fetcher;
+        this.window = window;
+        this.threadCount = threadCount;
+        this.bufferWindows = bufferWindows;
+        this.windowStats = new LatencyStats(name + " (window fetch)");
+    }
+
+    /**
+     * Pass every item from start to end, both inclusive, to the handler, one window after another. Blocks until
+     * done; a failed window fetch is thrown.
+     */
+    public void scan(DateTime start, DateTime end, OffsetScanner.ItemHandler<T> handler) throws Exception {
+        checkNotNull(start);
+        checkNotNull(end);
+        checkArgument(!end.isBefore(start), "end must not be before start");
+        long startNanos = System.nanoTime();
+        itemCount = 0;
+        itemsHeld.set(0);
+        maxItemsHeld.set(0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        Deque<Future<List<T>>> pending = new ArrayDeque<>();
+        try {
+            DateTime nextStart = start;
+            while (nextStart != null || !pending.isEmpty()) {
+                while (nextStart != null && pending.size() < bufferWindows) {
+                    DateTime windowStart = nextStart;
+                    DateTime windowEnd = windowStart.plus(window).minusMillis(1);
+                    if (windowEnd.isBefore(end)) {
+                        nextStart = windowEnd.plusMillis(1);
+                    } else {
+                        windowEnd = end;
+                        nextStart = null;
+                    }
+                    DateTime fetchEnd = windowEnd;
+                    pending.add(executor.submit(() -> hold(windowStats.time(v -> fetcher.fetch(windowStart,
+                            fetchEnd)))));
+                }
+                List<T> items = get(pending.poll());
+                for (T item : items) {
+                    handler.handle(item);
+                }
+                itemCount += items.size();
+                itemsHeld.addAndGet(-items.size());
+            }
+        } finally {
+            executor.shutdownNow();
+            elapsedNanos = System.nanoTime() - startNanos;
+        }
+    }
+
+    // Items count as held from when their window is fetched until the handler has had all of them.
+    private List<T> hold(List<T> items) {
+        int held = itemsHeld.addAndGet(items.size());
+        maxItemsHeld.accumulateAndGet(held, Math::max);
+        return items;
+    }
+
+    private static <T> List<T> get(Future<List<T>> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public LatencyStats getWindowStats() {
+        return windowStats;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    /** The most items fetched but not yet handled at any one time during the last scan. */
+    public int getMaxItemsHeld() {
+        return maxItemsHeld.get();
+    }
+
+    @Override
+    public String toString() {
+        double seconds = elapsedNanos / 1e9;
+        return String.format("%s, %d items, %.1f items/sec over %dms, at most %d items held", windowStats,
+                itemCount, (elapsedNanos == 0) ? 0 : itemCount / seconds, NANOSECONDS.toMillis(elapsedNanos),
+                getMaxItemsHeld());
+    }
+}
@@ -0,0 +1,104 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Duration;
+import org.junit.Test;
+
+public class CreatedOnScannerTest {
+    private static final DateTime START = new DateTime(2020, 1, 1, 0, 0, DateTimeZone.UTC);
+    private static final DateTime END = START.plusDays(10);
+
+    // One item every 6 hours, including both ends of the range, and the millisecond either side of each day.
+    private static List<DateTime> makeItems() {
+        List<DateTime> items = new ArrayList<>();
+        for (DateTime time = START; !time.isAfter(END); time = time.plusHours(6)) {
+            items.add(time);
+        }
+        for (int day = 1; day < 10; day++) {
+            items.add(START.plusDays(day).minusMillis(1));
+            items.add(START.plusDays(day).plusMillis(1));
+        }
+        Collections.sort(items);
+        return items;
+    }
+
+    private static List<DateTime> between(List<DateTime> items, DateTime start, DateTime end) {
+        return items.stream().filter(time -> !time.isBefore(start) && !time.isAfter(end)).collect(toList());
+    }
+
+    @Test
+    public void concurrentScanReturnsEveryItemOnceInOrder() throws Exception {
+        List<DateTime> items = makeItems();
+        CreatedOnScanner<DateTime> scanner = new CreatedOnScanner<>("test", (start, end) -> between(items, start,
+                end), Duration.standardDays(1), 4, 8);
+
+        List<DateTime> scanned = new ArrayList<>();
+        scanner.scan(START, END, scanned::add);
+
+        assertEquals(items, scanned);
+        assertEquals(items.size(), scanner.getItemCount());
+        // Ten whole days, plus a last window of just the inclusive end of the range.
+        assertEquals(11, scanner.getWindowStats().getCount());
+    }
+
+    @Test
+    public void itemsHeldAreBoundedByBufferWindows() throws Exception {
+        List<DateTime> items = makeItems();
+        CreatedOnScanner<DateTime> scanner = new CreatedOnScanner<>("test", (start, end) -> between(items, start,
+                end), Duration.standardDays(1), 2, 2);
+
+        // A slow handler lets the fetches get as far ahead as they are allowed to.
+        scanner.scan(START, END, time -> Thread.sleep(1));
+
+        // Each day has 4 items on the 6 hour marks plus the 2 either side of midnight, so at most 6 items per window,
+        // and the window being handled is one of the 2 buffered.
+        assertTrue(scanner.getMaxItemsHeld() > 0);
+        assertTrue(scanner.getMaxItemsHeld() <= 2 * 6);
+    }
+
+    @Test
+    public void windowsAreContiguousAndDoNotOverlap() throws Exception {
+        List<DateTime[]> windows = Collections.synchronizedList(new ArrayList<>());
+        CreatedOnScanner<DateTime> scanner = new CreatedOnScanner<>("test", (start, end) -> {
+            windows.add(new DateTime[] { start, end });
+            return Collections.emptyList();
+        }, Duration.standardHours(7), 1, 1);
+
+        scanner.scan(START, START.plusDays(1), time -> {});
+
+        // 24 hours in 7 hour windows, the last one cut short at the end of the range.
+        assertEquals(4, windows.size());
+        assertEquals(START, windows.get(0)[0]);
+        for (int i = 1; i < windows.size(); i++) {
+            assertEquals(windows.get(i - 1)[1].plusMillis(1), windows.get(i)[0]);
+        }
+        assertEquals(START.plusDays(1), windows.get(3)[1]);
+    }
+
+    @Test
+    public void failedWindowIsThrown() throws Exception {
+        CreatedOnScanner<DateTime> scanner = new CreatedOnScanner<>("test", (start, end) -> {
+            if (start.isAfter(START)) {
+                throw new IllegalStateException("range too wide");
+            }
+            return Collections.singletonList(start);
+        }, Duration.standardDays(1), 2, 2);
+
+        try {
+            scanner.scan(START, END, time -> {});
+            fail("expected exception");
+        } catch (IllegalStateException e) {
+            assertEquals("range too wide", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.sagebionetworks.bridge.rest.model.Role.DEVELOPER;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.NotificationsApi;
+import org.sagebionetworks.bridge.rest.api.SchedulesApi;
+import org.sagebionetworks.bridge.rest.api.StudiesApi;
+import org.sagebionetworks.bridge.rest.api.SubpopulationsApi;
+import org.sagebionetworks.bridge.rest.model.Activity;
+import org.sagebionetworks.bridge.rest.model.Criteria;
+import org.sagebionetworks.bridge.rest.model.CriteriaScheduleStrategy;
+import org.sagebionetworks.bridge.rest.model.Enrollment;
+import org.sagebionetworks.bridge.rest.model.NotificationTopic;
+import org.sagebionetworks.bridge.rest.model.Schedule;
+import org.sagebionetworks.bridge.rest.model.ScheduleCriteria;
+import org.sagebionetworks.bridge.rest.model.SchedulePlan;
+import org.sagebionetworks.bridge.rest.model.ScheduleType;
+import org.sagebionetworks.bridge.rest.model.Study;
+import org.sagebionetworks.bridge.rest.model.StudyParticipant;
+import org.sagebionetworks.bridge.rest.model.Subpopulation;
+import org.sagebionetworks.bridge.rest.model.TaskReference;
+import org.sagebionetworks.bridge.rest.model.UserSessionInfo;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Adds subpopulations, criteria schedule plans and notification topics to the app in steps, and at each step
+ * measures sign-in (which evaluates consent status against every subpopulation), getScheduledActivities (every
+ * plan) and a participant update that rewrites data groups (consent status and topic criteria again).
+ *
+ * Every criteria requires a study created for the test, so participants of other tests never match and see no
+ * change. The test's participants are in that study and split into two cohorts. Every rule of every criteria
+ * passes for both, except the final noneOfGroups rule, which only the unmatched cohort's extra data group fails.
+ * So both cohorts pay for evaluating every rule, and the matched cohort also gets the matching objects back.
+ */
+@Category(PerformanceTest.class)
+public class CriteriaPerformanceTest {
+    private static final Logger LOG = LoggerFactory.getLogger(CriteriaPerformanceTest.class);
+
+    private static final int MAX_OBJECTS = Integer.getInteger("perf.criteria.maxObjects", 400);
+    private static final int CRITERIA_PER_PLAN = Integer.getInteger("perf.criteria.perPlan", 5);
+    private static final int USER_COUNT = Integer.getInteger("perf.criteria.users", 10);
+    private static final int CALLS_PER_STEP = Integer.getInteger("perf.criteria.calls", 100);
+    private static final int THREAD_COUNT = Integer.getInteger("perf.threads", 20);
+    private static final List<Integer> OBJECT_STEPS = ImmutableList.of(0, 50, 100, 200, 400);
+    private static final String TASK_ID = "task:AAA";
+    private static final String MATCHED_GROUP = "sdk-int-1";
+    private static final String UNMATCHED_GROUP = "sdk-int-2";
+    private static final List<String> MATCHED_GROUPS = ImmutableList.of(MATCHED_GROUP);
+    private static final List<String> UNMATCHED_GROUPS = ImmutableList.of(MATCHED_GROUP, UNMATCHED_GROUP);
+
+    private TestUser admin;
+    private TestUser developer;
+    private List<TestUser> matchedUsers;
+    private List<TestUser> unmatchedUsers;
+    private List<String> subpopGuids;
+    private List<String> planGuids;
+    private List<String> topicGuids;
+    private String studyId;
+
+    @Before
+    public void before() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        developer = TestUserHelper.createAndSignInUser(CriteriaPerformanceTest.class, false, DEVELOPER);
+        matchedUsers = new ArrayList<>();
+        unmatchedUsers = new ArrayList<>();
+        subpopGuids = new ArrayList<>();
+        planGuids = new ArrayList<>();
+        topicGuids = new ArrayList<>();
+
+        studyId = Tests.randomIdentifier(CriteriaPerformanceTest.class);
+        admin.getClient(StudiesApi.class).createStudy(new Study().identifier(studyId).name(studyId)).execute();
+    }
+
+    @After
+    public void after() throws Exception {
+        ForAdminsApi adminsApi = admin.getClient(ForAdminsApi.class);
+        SchedulesApi schedulesApi = admin.getClient(SchedulesApi.class);
+        TeardownRegistry teardown = new TeardownRegistry(THREAD_COUNT);
+        String study = teardown.register("study:" + studyId, () -> adminsApi.deleteStudy(studyId, true).execute());
+        for (String guid : subpopGuids) {
+            teardown.register("subpop:" + guid, () -> adminsApi.deleteSubpopulation(guid, true).execute(), study);
+        }
+        for (String guid : planGuids) {
+            teardown.register("plan:" + guid, () -> schedulesApi.deleteSchedulePlan(guid, true).execute(), study);
+        }
+        for (String guid : topicGuids) {
+            teardown.register("topic:" + guid, () -> adminsApi.deleteNotificationTopic(guid, true).execute(),
+                    study);
+        }
+        for (TestUser user : Iterables.concat(matchedUsers, unmatchedUsers)) {
+            teardown.register("user:" + user.getUserId(), user::signOutAndDeleteUser, study);
+        }
+        if (developer != null) {
+            teardown.register("user:" + developer.getUserId(), developer::signOutAndDeleteUser);
+        }
+        teardown.deleteAll();
+    }
+
+    @Test
+    public void requestLatencyAsCriteriaGrow() throws Exception {
+        for (int i = 0; i < USER_COUNT; i++) {
+            matchedUsers.add(createUser(MATCHED_GROUPS));
+            unmatchedUsers.add(createUser(UNMATCHED_GROUPS));
+        }
+        for (int objects : OBJECT_STEPS) {
+            if (objects > MAX_OBJECTS) {
+                break;
+            }
+            while (subpopGuids.size() + planGuids.size() + topicGuids.size() < objects) {
+                addObject(subpopGuids.size() + planGuids.size() + topicGuids.size());
+            }
+            measure("matched", matchedUsers, MATCHED_GROUPS);
+            measure("unmatched", unmatchedUsers, UNMATCHED_GROUPS);
+        }
+    }
+
+    private TestUser createUser(List<String> dataGroups) throws Exception {
+        TestUser user = TestUserHelper.createAndSignInUser(CriteriaPerformanceTest.class, true);
+        admin.getClient(StudiesApi.class).enrollParticipant(studyId, new Enrollment().userId(user.getUserId()))
+                .execute();
+        user.getClient(ForConsentedUsersApi.class).updateUsersParticipantRecord(new StudyParticipant()
+                .dataGroups(dataGroups)).execute();
+        // Sign in again so the session has the study and data groups.
+        user.signInAgain();
+        return user;
+    }
+
+    // Round robin over the three kinds, so each step has about a third of each.
+    private void addObject(int index) throws Exception {
+        Criteria criteria = makeCriteria(index);
+        switch (index % 3) {
+        case 0:
+            Subpopulation subpop = new Subpopulation();
+            subpop.setName("Criteria subpopulation " + index);
+            subpop.setRequired(false);
+            subpop.setCriteria(criteria);
+            subpopGuids.add(developer.getClient(SubpopulationsApi.class).createSubpopulation(subpop).execute()
+                    .body().getGuid());
+            break;
+        case 1:
+            CriteriaScheduleStrategy strategy = new CriteriaScheduleStrategy();
+            List<ScheduleCriteria> scheduleCriteria = new ArrayList<>();
+            for (int j = 0; j < CRITERIA_PER_PLAN; j++) {
+                scheduleCriteria.add(new ScheduleCriteria().criteria(makeCriteria(index + j))
+                        .schedule(makeSchedule(index)));
+            }
+            strategy.setScheduleCriteria(scheduleCriteria);
+            SchedulePlan plan = new SchedulePlan();
+            plan.setLabel(CriteriaPerformanceTest.class.getSimpleName() + " plan " + index);
+            plan.setStrategy(strategy);
+            planGuids.add(developer.getClient(SchedulesApi.class).createSchedulePlan(plan).execute().body()
+                    .getGuid());
+            break;
+        default:
+            NotificationTopic topic = new NotificationTopic().name("Criteria topic " + index)
+                    .shortName("topic" + index).criteria(criteria);
+            topicGuids.add(developer.getClient(NotificationsApi.class).createNotificationTopic(topic).execute()
+                    .body().getGuid());
+        }
+    }
+
+    private void measure(String cohort, List<TestUser> users, List<String> dataGroups) throws Exception {
+        String label = " (" + cohort + ", " + subpopGuids.size() + " subpops, " + planGuids.size() + " plans, "
+                + topicGuids.size() + " topics)";
+        DateTime startOn = DateTime.now(DateTimeZone.UTC);
+        DateTime endOn = startOn.plusDays(4);
+
+        LatencyStats signIn = new LatencyStats("signIn" + label);
+        signIn.runConcurrently(THREAD_COUNT, CALLS_PER_STEP, i -> users.get(i % users.size()).signInAgain());
+
+        LatencyStats activities = new LatencyStats("getScheduledActivitiesByDateRange" + label);
+        activities.runConcurrently(THREAD_COUNT, CALLS_PER_STEP, i -> users.get(i % users.size())
+                .getClient(ForConsentedUsersApi.class).getScheduledActivitiesByDateRange(startOn, endOn)
+                .execute().body());
+
+        // Concurrent updates of one participant would conflict, so calls for the same user take turns. The data
+        // groups are rewritten unchanged, so the participant stays in their cohort.
+        LatencyStats update = new LatencyStats("updateUsersParticipantRecord (data groups)" + label);
+        update.runConcurrently(Math.min(THREAD_COUNT, users.size()), CALLS_PER_STEP, i -> {
+            TestUser user = users.get(i % users.size());
+            synchronized (user) {
+                StudyParticipant participant = new StudyParticipant().dataGroups(dataGroups);
+                return user.getClient(ForConsentedUsersApi.class).updateUsersParticipantRecord(participant)
+                        .execute().body();
+            }
+        });
+
+        // The matched cohort should see every subpopulation and every plan's activity; the unmatched none.
+        UserSessionInfo session = users.get(0).signInAgain();
+        int activityCount = users.get(0).getClient(ForConsentedUsersApi.class)
+                .getScheduledActivitiesByDateRange(startOn, endOn).execute().body().getItems().size();
+
+        LOG.info(signIn.toString());
+        LOG.info(activities.toString());
+        LOG.info(update.toString());
+        LOG.info("{} consent statuses, {} activities{}", session.getConsentStatuses().size(), activityCount,
+                label);
+        assertEquals(0, signIn.getErrorCount() + activities.getErrorCount() + update.getErrorCount());
+    }
+
+    // Bridge checks the app version, then allOfGroups, then noneOfGroups. The optional rules vary how much is
+    // evaluated before the noneOfGroups rule that decides the match.
+    private Criteria makeCriteria(int index) {
+        Criteria criteria = new Criteria().allOfStudyIds(ImmutableList.of(studyId))
+                .noneOfGroups(ImmutableList.of(UNMATCHED_GROUP));
+        int complexity = index % 3;
+        if (complexity >= 1) {
+            criteria.minAppVersions(ImmutableMap.of("Android", 0, "iPhone OS", 0));
+        }
+        if (complexity >= 2) {
+            criteria.allOfGroups(ImmutableList.of(MATCHED_GROUP));
+        }
+        return criteria;
+    }
+
+    private Schedule makeSchedule(int index) {
+        Activity activity = new Activity().label("Criteria activity " + index)
+                .task(new TaskReference().identifier(TASK_ID));
+        Schedule schedule = new Schedule();
+        schedule.setScheduleType(ScheduleType.ONCE);
+        schedule.setActivities(ImmutableList.of(activity));
+        return schedule;
+    }
+}
@@ -0,0 +1,233 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.stream.Collectors.toList;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.InternalApi;
+import org.sagebionetworks.bridge.rest.api.ParticipantsApi;
+import org.sagebionetworks.bridge.rest.model.AccountSummary;
+import org.sagebionetworks.bridge.rest.model.AccountSummaryList;
+import org.sagebionetworks.bridge.rest.model.AccountSummarySearch;
+import org.sagebionetworks.bridge.rest.model.EnrollmentMigration;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Applies one enrollment change to many accounts through the admin enrollment migration APIs (the same calls
+ * EnrollmentTest.adminApisToMigrateEnrollments makes for one user). Account IDs are streamed from an account
+ * search or a file with one ID per line. Accounts are migrated on a bounded pool, and a token bucket caps the
+ * rate of accounts per second across all workers.
+ *
+ * Each migrated account's ID is appended to a checkpoint file. A run that is stopped part way can be started again
+ * with the same checkpoint file, and it skips the accounts that are already done. Accounts that fail are not
+ * checkpointed, so they are retried on the next run.
+ */
+public class EnrollmentMigrator {
+    private static final Logger LOG = LoggerFactory.getLogger(EnrollmentMigrator.class);
+
+    private static final int PAGE_SIZE = 100;
+    private static final int CHECKPOINT_FLUSH_INTERVAL = 100;
+
+    /** The change to make to one account's enrollments. */
+    @FunctionalInterface
+    public interface Migration {
+        /**
+         * Change the account's enrollments in place. Return false if the account already has the change, so
+         * nothing is written.
+         */
+        boolean apply(String userId, List<EnrollmentMigration> migrations) throws Exception;
+    }
+
+    private final InternalApi internalApi;
+    private final ParticipantsApi participantsApi;
+    private final Migration migration;
+    private final int threadCount;
+    private final RateLimiter rateLimiter;
+    private final Path checkpoint;
+    private final Set<String> completed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger updatedCount = new AtomicInteger();
+    private final AtomicInteger unchangedCount = new AtomicInteger();
+    private final AtomicInteger skippedCount = new AtomicInteger();
+    private final AtomicInteger failedCount = new AtomicInteger();
+    private final LatencyStats stats = new LatencyStats("migrate enrollments (per account)");
+    private BufferedWriter checkpointWriter;
+    private int unflushed;
+    private long elapsedNanos;
+
+    /**
+     * @param admin an admin in the app whose accounts are migrated
+     * @param migration the change to make to each account
+     * @param threadCount the number of accounts migrated at once
+     * @param accountsPerSecond the maximum rate across all threads
+     * @param checkpoint the file of completed account IDs; created if it doesn't exist
+     */
+    public EnrollmentMigrator(TestUser admin, Migration migration, int threadCount, double accountsPerSecond,
+            Path checkpoint) throws IOException {
+        checkNotNull(admin);
+        checkNotNull(migration);
+        checkNotNull(checkpoint);
+        checkArgument(threadCount > 0, "threadCount must be positive");
+        checkArgument(accountsPerSecond > 0, "accountsPerSecond must be positive");
+        this.internalApi = admin.getClient(InternalApi.class);
+        this.participantsApi = admin.getClient(ParticipantsApi.class);
+        this.migration = migration;
+        this.threadCount = threadCount;
+        this.rateLimiter = RateLimiter.create(accountsPerSecond);
+        this.checkpoint = checkpoint;
+        if (Files.exists(checkpoint)) {
+            completed.addAll(Files.readAllLines(checkpoint, UTF_8));
+        }
+    }
+
+    /** Migrate every account matched by the search. The search's offsetBy and pageSize are overwritten. */
+    public void migrateSearch(AccountSummarySearch search) throws Exception {
+        checkNotNull(search);
+        run(executor -> {
+            new OffsetScanner<String>("searchAccountSummaries", (offset, pageSize) -> {
+                AccountSummaryList list = participantsApi.searchAccountSummaries(search.offsetBy(offset)
+                        .pageSize(pageSize)).execute().body();
+                return new OffsetScanner.Page<>(list.getItems().stream().map(AccountSummary::getId)
+                        .collect(toList()), list.getTotal());
+            }, PAGE_SIZE, 1, 1).scan(userId -> submit(executor, userId));
+        });
+    }
+
+    /** Migrate every account whose ID is on a line of the file. */
+    public void migrateFile(Path userIds) throws Exception {
+        checkNotNull(userIds);
+        run(executor -> {
+            try (BufferedReader reader = Files.newBufferedReader(userIds, UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        submit(executor, line.trim());
+                    }
+                }
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Source {
+        void submitAll(ThreadPoolExecutor executor) throws Exception;
+    }
+
+    private void run(Source source) throws Exception {
+        // Callers run the task themselves when the queue is full, which keeps the source from getting ahead.
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threadCount * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+        long start = System.nanoTime();
+        checkpointWriter = Files.newBufferedWriter(checkpoint, UTF_8, CREATE, APPEND);
+        boolean finished = false;
+        try {
+            source.submitAll(executor);
+        } finally {
+            executor.shutdown();
+            finished = executor.awaitTermination(1, HOURS);
+            if (!finished) {
+                // Stop whatever is still running before the checkpoint is closed underneath it. Accounts that
+                // didn't finish aren't in the checkpoint, so a rerun picks them up.
+                executor.shutdownNow();
+                executor.awaitTermination(1, MINUTES);
+            }
+            synchronized (this) {
+                checkpointWriter.close();
+            }
+            elapsedNanos = System.nanoTime() - start;
+        }
+        if (!finished) {
+            throw new IllegalStateException("Migration did not finish within an hour: " + this);
+        }
+        LOG.info(toString());
+    }
+
+    private void submit(ThreadPoolExecutor executor, String userId) {
+        if (completed.contains(userId)) {
+            skippedCount.incrementAndGet();
+            return;
+        }
+        executor.execute(() -> migrate(userId));
+    }
+
+    private void migrate(String userId) {
+        rateLimiter.acquire();
+        try {
+            boolean updated = stats.time(v -> {
+                List<EnrollmentMigration> migrations = internalApi.getEnrollmentMigrations(userId).execute()
+                        .body();
+                if (!migration.apply(userId, migrations)) {
+                    return false;
+                }
+                internalApi.updateEnrollmentMigrations(userId, migrations).execute();
+                return true;
+            });
+            (updated ? updatedCount : unchangedCount).incrementAndGet();
+            checkpoint(userId);
+        } catch (Exception e) {
+            failedCount.incrementAndGet();
+            LOG.warn("Could not migrate enrollments for " + userId + ": " + e.getMessage());
+        }
+    }
+
+    private synchronized void checkpoint(String userId) throws IOException {
+        completed.add(userId);
+        checkpointWriter.write(userId);
+        checkpointWriter.newLine();
+        if (++unflushed >= CHECKPOINT_FLUSH_INTERVAL) {
+            checkpointWriter.flush();
+            unflushed = 0;
+        }
+    }
+
+    public int getUpdatedCount() {
+        return updatedCount.get();
+    }
+
+    public int getUnchangedCount() {
+        return unchangedCount.get();
+    }
+
+    /** Accounts skipped because the checkpoint file shows they were done by an earlier run. */
+    public int getSkippedCount() {
+        return skippedCount.get();
+    }
+
+    public int getFailedCount() {
+        return failedCount.get();
+    }
+
+    public double getAccountsPerSecond() {
+        int processed = getUpdatedCount() + getUnchangedCount();
+        return (elapsedNanos == 0) ? 0 : processed / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s; %d updated, %d unchanged, %d skipped, %d failed, %.1f accounts/sec over %dms",
+                stats, getUpdatedCount(), getUnchangedCount(), getSkippedCount(), getFailedCount(),
+                getAccountsPerSecond(), NANOSECONDS.toMillis(elapsedNanos));
+    }
+}
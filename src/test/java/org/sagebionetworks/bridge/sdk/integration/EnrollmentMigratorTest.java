@@ -0,0 +1,149 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.PASSWORD;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.STUDY_ID_1;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.STUDY_ID_2;
+import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_ID;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.joda.time.DateTime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.ParticipantsApi;
+import org.sagebionetworks.bridge.rest.api.StudiesApi;
+import org.sagebionetworks.bridge.rest.model.AccountSummarySearch;
+import org.sagebionetworks.bridge.rest.model.Enrollment;
+import org.sagebionetworks.bridge.rest.model.EnrollmentMigration;
+import org.sagebionetworks.bridge.rest.model.SignUp;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Enrolls a batch of participants in study1, then migrates them all to also be enrolled in study2. The first run
+ * is stopped half way (it's given half the IDs); the second run resumes from its checkpoint; a search-driven run
+ * with a fresh checkpoint then finds every account already migrated.
+ */
+@Category(PerformanceTest.class)
+public class EnrollmentMigratorTest {
+    private static final Logger LOG = LoggerFactory.getLogger(EnrollmentMigratorTest.class);
+
+    private static final int USER_COUNT = Integer.getInteger("perf.migration.users", 200);
+    private static final double ACCOUNTS_PER_SECOND = Integer.getInteger("perf.migration.rate", 50);
+    private static final int THREAD_COUNT = Integer.getInteger("perf.threads", 20);
+
+    private TestUser admin;
+    private String emailPrefix;
+    private List<String> userIds;
+    private List<Path> tempFiles;
+
+    @Before
+    public void before() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        emailPrefix = "bridge-testing+" + Tests.randomIdentifier(EnrollmentMigratorTest.class);
+        userIds = new ArrayList<>();
+        tempFiles = new ArrayList<>();
+    }
+
+    @After
+    public void after() throws Exception {
+        ForAdminsApi adminsApi = admin.getClient(ForAdminsApi.class);
+        TeardownRegistry teardown = new TeardownRegistry(THREAD_COUNT);
+        for (String userId : userIds) {
+            teardown.register("user:" + userId, () -> adminsApi.deleteUser(userId).execute());
+        }
+        teardown.deleteAll();
+        for (Path file : tempFiles) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void migrateResumeAndRerun() throws Exception {
+        ForAdminsApi adminsApi = admin.getClient(ForAdminsApi.class);
+        StudiesApi studiesApi = admin.getClient(StudiesApi.class);
+
+        LatencyStats create = new LatencyStats("createUser + enrollParticipant");
+        create.runConcurrently(THREAD_COUNT, USER_COUNT, i -> {
+            SignUp signUp = new SignUp().email(emailPrefix + "-" + i + "@sagebase.org").password(PASSWORD)
+                    .appId(TEST_APP_ID);
+            String userId = adminsApi.createUser(signUp).execute().body().getId();
+            synchronized (userIds) {
+                userIds.add(userId);
+            }
+            return studiesApi.enrollParticipant(STUDY_ID_1, new Enrollment().userId(userId)).execute();
+        });
+        assertEquals(0, create.getErrorCount());
+
+        DateTime enrolledOn = DateTime.now();
+        EnrollmentMigrator.Migration enrollInStudy2 = (userId, migrations) -> {
+            if (migrations.stream().anyMatch(em -> STUDY_ID_2.equals(em.getStudyId()))) {
+                return false;
+            }
+            EnrollmentMigration migration = new EnrollmentMigration();
+            migration.setAppId(TEST_APP_ID);
+            migration.setStudyId(STUDY_ID_2);
+            migration.setUserId(userId);
+            migration.setEnrolledBy(admin.getUserId());
+            migration.setEnrolledOn(enrolledOn);
+            migrations.add(migration);
+            return true;
+        };
+
+        Path checkpoint = tempFile("checkpoint");
+        Path firstHalf = tempFile("first-half");
+        Path allUsers = tempFile("all-users");
+        int half = userIds.size() / 2;
+        Files.write(firstHalf, userIds.subList(0, half), UTF_8);
+        Files.write(allUsers, userIds, UTF_8);
+
+        EnrollmentMigrator first = new EnrollmentMigrator(admin, enrollInStudy2, THREAD_COUNT,
+                ACCOUNTS_PER_SECOND, checkpoint);
+        first.migrateFile(firstHalf);
+        LOG.info("first run: {}", first);
+        assertEquals(half, first.getUpdatedCount());
+
+        EnrollmentMigrator resumed = new EnrollmentMigrator(admin, enrollInStudy2, THREAD_COUNT,
+                ACCOUNTS_PER_SECOND, checkpoint);
+        resumed.migrateFile(allUsers);
+        LOG.info("resumed run: {}", resumed);
+        assertEquals(half, resumed.getSkippedCount());
+        assertEquals(USER_COUNT - half, resumed.getUpdatedCount());
+        assertEquals(0, resumed.getFailedCount());
+
+        // Without the checkpoint every account is read again, but none needs a change.
+        EnrollmentMigrator rerun = new EnrollmentMigrator(admin, enrollInStudy2, THREAD_COUNT,
+                ACCOUNTS_PER_SECOND, tempFile("rerun-checkpoint"));
+        rerun.migrateSearch(new AccountSummarySearch().emailFilter(emailPrefix));
+        LOG.info("search rerun: {}", rerun);
+        assertEquals(USER_COUNT, rerun.getUnchangedCount());
+        assertEquals(0, rerun.getUpdatedCount());
+
+        ParticipantsApi participantsApi = admin.getClient(ParticipantsApi.class);
+        for (String userId : userIds.subList(0, Math.min(10, userIds.size()))) {
+            List<String> studyIds = participantsApi.getParticipantById(userId, false).execute().body()
+                    .getStudyIds();
+            assertTrue(studyIds.contains(STUDY_ID_1));
+            assertTrue(studyIds.contains(STUDY_ID_2));
+        }
+    }
+
+    private Path tempFile(String name) throws Exception {
+        Path file = Files.createTempFile("enrollment-migrator-" + name, ".txt");
+        Files.delete(file);
+        tempFiles.add(file);
+        return file;
+    }
+}
@@ -0,0 +1,85 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.http.entity.ContentType.APPLICATION_JSON;
+
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.EntityTemplate;
+import org.hl7.fhir.dstu3.model.Appointment;
+import org.hl7.fhir.dstu3.model.Bundle;
+import org.hl7.fhir.dstu3.model.Bundle.BundleType;
+import org.hl7.fhir.dstu3.model.Observation;
+import org.hl7.fhir.dstu3.model.ProcedureRequest;
+import org.hl7.fhir.dstu3.model.Resource;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+
+/**
+ * The FhirContext is expensive to create and thread-safe, but the parsers it creates are not. This
+ * holds the one context used for the CRC calls and hands out a reusable JSON parser per thread,
+ * rather than creating a new parser for every payload. The resource definitions we send to the
+ * server are scanned when this class loads, so the first encode on a thread doesn't pay for that.
+ */
+public class FhirParserPool {
+
+    static final FhirContext CONTEXT = FhirContext.forDstu3();
+
+    static final List<Class<? extends IBaseResource>> WARMED_RESOURCES = ImmutableList.of(
+            Appointment.class, Bundle.class, Observation.class, ProcedureRequest.class);
+
+    private static final ThreadLocal<IParser> JSON_PARSERS = ThreadLocal.withInitial(CONTEXT::newJsonParser);
+
+    static {
+        for (Class<? extends IBaseResource> resourceClass : WARMED_RESOURCES) {
+            CONTEXT.getResourceDefinition(resourceClass);
+        }
+    }
+
+    /** The JSON parser for the calling thread. Do not hand this to another thread. */
+    public static IParser jsonParser() {
+        return JSON_PARSERS.get();
+    }
+
+    public static String encode(IBaseResource resource) {
+        return jsonParser().encodeResourceToString(resource);
+    }
+
+    public static <T extends IBaseResource> T parse(Class<T> resourceClass, String json) {
+        return jsonParser().parseResource(resourceClass, json);
+    }
+
+    /**
+     * Wrap resources in a collection bundle. The resources are added by reference, not copied.
+     */
+    public static Bundle bundle(List<? extends Resource> resources) {
+        Bundle bundle = new Bundle();
+        bundle.setType(BundleType.COLLECTION);
+        for (Resource resource : resources) {
+            bundle.addEntry().setResource(resource);
+        }
+        return bundle;
+    }
+
+    /**
+     * An entity that encodes the resource directly to the request's output stream when the request
+     * is sent, so the JSON is never held in memory as a string. The resource is encoded with the
+     * parser of the thread that executes the request.
+     */
+    public static HttpEntity streamingEntity(IBaseResource resource) {
+        EntityTemplate entity = new EntityTemplate(outstream -> {
+            Writer writer = new OutputStreamWriter(outstream, UTF_8);
+            jsonParser().encodeResourceToWriter(resource, writer);
+            writer.flush();
+        });
+        entity.setContentType(APPLICATION_JSON.toString());
+        return entity;
+    }
+}
@@ -0,0 +1,72 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import com.google.common.io.ByteStreams;
+
+import org.hl7.fhir.dstu3.model.Bundle;
+import org.hl7.fhir.dstu3.model.Observation;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Compares the allocation cost of the pattern CRCTest used to follow (a new parser per payload, encoded to a
+ * string) against the pooled parser streaming a bundle straight to the request body. This runs locally and
+ * doesn't need a server.
+ */
+@Category(PerformanceTest.class)
+public class FhirParserPoolPerformanceTest {
+    private static final Logger LOG = LoggerFactory.getLogger(FhirParserPoolPerformanceTest.class);
+
+    private static final int OBSERVATION_COUNT = Integer.getInteger("perf.fhir.observations", 500);
+    private static final int ROUNDS = Integer.getInteger("perf.fhir.rounds", 20);
+    private static final ThreadMXBean THREAD_BEAN = (ThreadMXBean)ManagementFactory.getThreadMXBean();
+
+    @Test
+    public void allocationPerObservation() throws IOException {
+        List<Observation> observations = FhirParserPoolTest.makeObservations(OBSERVATION_COUNT);
+        Bundle bundle = FhirParserPool.bundle(observations);
+        OutputStream sink = ByteStreams.nullOutputStream();
+
+        // Warm up both paths so class loading and JIT don't count against either one.
+        encodeAdHoc(observations);
+        FhirParserPool.streamingEntity(bundle).writeTo(sink);
+
+        long adHocBytes = 0L;
+        long pooledBytes = 0L;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = allocatedBytes();
+            encodeAdHoc(observations);
+            adHocBytes += allocatedBytes() - start;
+
+            start = allocatedBytes();
+            FhirParserPool.streamingEntity(bundle).writeTo(sink);
+            pooledBytes += allocatedBytes() - start;
+        }
+        long total = (long)ROUNDS * OBSERVATION_COUNT;
+        LOG.info("FHIR encoding, {} observations x {} rounds: ad hoc parser {} bytes/observation, "
+                + "pooled streaming bundle {} bytes/observation", OBSERVATION_COUNT, ROUNDS,
+                adHocBytes / total, pooledBytes / total);
+    }
+
+    // This is what CRCTest did for each payload
+    private void encodeAdHoc(List<Observation> observations) {
+        for (Observation observation : observations) {
+            String body = FhirParserPool.CONTEXT.newJsonParser().encodeResourceToString(observation);
+            body.getBytes(UTF_8);
+        }
+    }
+
+    private static long allocatedBytes() {
+        return THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,65 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hl7.fhir.dstu3.model.Bundle;
+import org.hl7.fhir.dstu3.model.CodeableConcept;
+import org.hl7.fhir.dstu3.model.Coding;
+import org.hl7.fhir.dstu3.model.Extension;
+import org.hl7.fhir.dstu3.model.Identifier;
+import org.hl7.fhir.dstu3.model.Observation;
+import org.hl7.fhir.dstu3.model.Range;
+import org.hl7.fhir.dstu3.model.Reference;
+import org.hl7.fhir.dstu3.model.StringType;
+import org.junit.Test;
+
+/**
+ * Checks that a bundle streamed by the pooled parser parses back to the same observations. This runs locally and
+ * doesn't need a server; FhirParserPoolPerformanceTest measures the allocation cost.
+ */
+public class FhirParserPoolTest {
+
+    @Test
+    public void bundleRoundTrips() throws IOException {
+        List<Observation> observations = makeObservations(10);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        FhirParserPool.streamingEntity(FhirParserPool.bundle(observations)).writeTo(baos);
+
+        Bundle retrieved = FhirParserPool.parse(Bundle.class, new String(baos.toByteArray(), UTF_8));
+        assertEquals(10, retrieved.getEntry().size());
+        Observation obs = (Observation)retrieved.getEntry().get(3).getResource();
+        assertEquals("user3", obs.getSubject().getIdentifier().getValue());
+    }
+
+    static List<Observation> makeObservations(int count) {
+        List<Observation> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Observation observation = new Observation();
+            observation.setId("observation" + i);
+            observation.setCode(new CodeableConcept().addCoding(new Coding().setCode("484670513")));
+
+            Extension extension = new Extension();
+            extension.setUrl("some-value");
+            extension.setValue(new StringType("Positive"));
+            Range range = new Range();
+            range.addExtension(extension);
+            observation.setValue(range);
+
+            Identifier id = new Identifier();
+            id.setSystem(CRCTest.USER_ID_VALUE_NS);
+            id.setValue("user" + i);
+            Reference ref = new Reference();
+            ref.setIdentifier(id);
+            observation.setSubject(ref);
+            list.add(observation);
+        }
+        return list;
+    }
+}
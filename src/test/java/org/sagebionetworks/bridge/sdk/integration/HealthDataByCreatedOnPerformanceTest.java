@@ -0,0 +1,180 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.HealthDataApi;
+import org.sagebionetworks.bridge.rest.api.InternalApi;
+import org.sagebionetworks.bridge.rest.exceptions.BadRequestException;
+import org.sagebionetworks.bridge.rest.model.HealthDataRecord;
+import org.sagebionetworks.bridge.rest.model.HealthDataSubmission;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Gives one participant years of schemaless health data records, spread evenly back from the start of the test, and
+ * then reads them the way a participant data download does, with getHealthDataByCreatedOn:
+ * <ul>
+ *   <li>single queries over windows from an hour to the whole history (the server may reject the wider ones);</li>
+ *   <li>the time from submitting a record until a query by its createdOn finds it, which HealthDataTest waits out
+ *   with Tests.retryHelper;</li>
+ *   <li>the whole history streamed through a CreatedOnScanner, serially and concurrently, without holding the
+ *   records in memory, along with the most records held at once.</li>
+ * </ul>
+ */
+@Category(PerformanceTest.class)
+public class HealthDataByCreatedOnPerformanceTest {
+    private static final Logger LOG = LoggerFactory.getLogger(HealthDataByCreatedOnPerformanceTest.class);
+
+    private static final String APP_VERSION = "version 1.0.0, build 2";
+    private static final String PHONE_INFO = "Integration Tests";
+    private static final int YEARS = Integer.getInteger("perf.createdOn.years", 2);
+    private static final int RECORDS_PER_DAY = Integer.getInteger("perf.createdOn.recordsPerDay", 10);
+    private static final int CALLS_PER_WINDOW = Integer.getInteger("perf.createdOn.calls", 20);
+    private static final int VISIBILITY_SAMPLES = Integer.getInteger("perf.createdOn.visibilitySamples", 10);
+    private static final int SCAN_WINDOW_DAYS = Integer.getInteger("perf.createdOn.scanWindowDays", 14);
+    private static final long POLL_MILLIS = Long.getLong("perf.createdOn.pollMillis", 100L);
+    private static final long POLL_TIMEOUT_MILLIS = Long.getLong("perf.createdOn.pollTimeoutMillis", 60000L);
+    private static final int THREAD_COUNT = Integer.getInteger("perf.threads", 20);
+    private static final List<Duration> WINDOWS = ImmutableList.of(Duration.standardHours(1),
+            Duration.standardDays(1), Duration.standardDays(7), Duration.standardDays(15), Duration.standardDays(30),
+            Duration.standardDays(90), Duration.standardDays(365));
+
+    private static TestUser user;
+    private static DateTime historyStart;
+    private static DateTime historyEnd;
+    private static int recordCount;
+
+    // Populating the history is the slow part, so all the tests share it.
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        user = TestUserHelper.createAndSignInUser(HealthDataByCreatedOnPerformanceTest.class, true);
+
+        // Records are evenly spaced and end a millisecond before historyEnd, so later submissions fall outside it.
+        historyEnd = DateTime.now();
+        historyStart = historyEnd.minusYears(YEARS);
+        recordCount = (int) (new Duration(historyStart, historyEnd).getStandardDays() * RECORDS_PER_DAY);
+        long spacingMillis = new Duration(historyStart, historyEnd).getMillis() / recordCount;
+
+        HealthDataApi healthDataApi = user.getClient(HealthDataApi.class);
+        LatencyStats populate = new LatencyStats("submitHealthData (" + recordCount + " records over " + YEARS
+                + " years)");
+        populate.runConcurrently(THREAD_COUNT, recordCount, i -> healthDataApi.submitHealthData(makeSubmission(
+                historyEnd.minusMillis(1).minus((long) i * spacingMillis), i)).execute().body());
+        LOG.info(populate.toString());
+        assertEquals(0, populate.getErrorCount());
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        if (user != null) {
+            user.signOutAndDeleteUser();
+        }
+    }
+
+    @Test
+    public void windowWidths() throws Exception {
+        InternalApi internalApi = user.getClient(InternalApi.class);
+        List<Duration> windows = ImmutableList.<Duration>builder().addAll(WINDOWS)
+                .add(new Duration(historyStart, historyEnd)).build();
+
+        for (Duration window : windows) {
+            long latestStart = historyEnd.getMillis() - window.getMillis();
+            AtomicInteger rejected = new AtomicInteger();
+            AtomicLong records = new AtomicLong();
+            LatencyStats stats = new LatencyStats("getHealthDataByCreatedOn (" + window.getStandardHours()
+                    + " hour window)");
+            stats.runConcurrently(THREAD_COUNT, CALLS_PER_WINDOW, i -> {
+                DateTime start = new DateTime(ThreadLocalRandom.current().nextLong(historyStart.getMillis(),
+                        Math.max(historyStart.getMillis(), latestStart) + 1));
+                try {
+                    records.addAndGet(internalApi.getHealthDataByCreatedOn(start, start.plus(window)).execute()
+                            .body().getItems().size());
+                } catch (BadRequestException e) {
+                    // A range limit on the server is a result, not a failure.
+                    rejected.incrementAndGet();
+                }
+                return null;
+            });
+            int answered = stats.getCount() - rejected.get();
+            LOG.info("{}; {} records per call, {} rejected", stats, (answered == 0) ? 0 : records.get() / answered,
+                    rejected.get());
+            assertEquals(0, stats.getErrorCount());
+        }
+    }
+
+    @Test
+    public void timeToVisibility() throws Exception {
+        HealthDataApi healthDataApi = user.getClient(HealthDataApi.class);
+        InternalApi internalApi = user.getClient(InternalApi.class);
+        LatencyStats submit = new LatencyStats("submitHealthData");
+        LatencyStats visible = new LatencyStats("submitHealthData until found by getHealthDataByCreatedOn");
+
+        // These records are created after historyEnd, so they don't change what the other tests read.
+        for (int i = 0; i < VISIBILITY_SAMPLES; i++) {
+            int index = recordCount + i;
+            visible.time(v -> {
+                DateTime createdOn = DateTime.now();
+                HealthDataRecord record = submit.time(w -> healthDataApi.submitHealthData(makeSubmission(
+                        createdOn, index)).execute().body());
+                long deadline = System.currentTimeMillis() + POLL_TIMEOUT_MILLIS;
+                while (internalApi.getHealthDataByCreatedOn(createdOn, createdOn).execute().body().getItems()
+                        .stream().noneMatch(r -> r.getId().equals(record.getId()))) {
+                    if (System.currentTimeMillis() > deadline) {
+                        throw new IllegalStateException("Record " + record.getId() + " not found after "
+                                + POLL_TIMEOUT_MILLIS + " ms");
+                    }
+                    Thread.sleep(POLL_MILLIS);
+                }
+                return record;
+            });
+        }
+        LOG.info(submit.toString());
+        LOG.info(visible.toString());
+    }
+
+    @Test
+    public void streamHistory() throws Exception {
+        InternalApi internalApi = user.getClient(InternalApi.class);
+        CreatedOnScanner.WindowFetcher<HealthDataRecord> fetcher = (start, end) -> internalApi
+                .getHealthDataByCreatedOn(start, end).execute().body().getItems();
+        Duration window = Duration.standardDays(SCAN_WINDOW_DAYS);
+
+        // The handler only counts, which is all a download job that writes each record out needs to keep.
+        AtomicInteger serialCount = new AtomicInteger();
+        CreatedOnScanner<HealthDataRecord> serial = new CreatedOnScanner<>("getHealthDataByCreatedOn, serial",
+                fetcher, window, 1, 1);
+        serial.scan(historyStart, historyEnd, record -> serialCount.incrementAndGet());
+
+        // Read-ahead is kept to one window per thread; the log line reports the most records held at once.
+        AtomicInteger concurrentCount = new AtomicInteger();
+        CreatedOnScanner<HealthDataRecord> concurrent = new CreatedOnScanner<>(
+                "getHealthDataByCreatedOn, concurrent", fetcher, window, THREAD_COUNT, THREAD_COUNT);
+        concurrent.scan(historyStart, historyEnd, record -> concurrentCount.incrementAndGet());
+
+        LOG.info(serial.toString());
+        LOG.info(concurrent.toString());
+        assertEquals(recordCount, serialCount.get());
+        assertEquals(recordCount, concurrentCount.get());
+    }
+
+    private static HealthDataSubmission makeSubmission(DateTime createdOn, int index) {
+        return new HealthDataSubmission().appVersion(APP_VERSION).createdOn(createdOn).phoneInfo(PHONE_INFO)
+                .data(ImmutableMap.of("reading", index));
+    }
+}
@@ -0,0 +1,146 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.joda.time.DateTime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.HealthDataApi;
+import org.sagebionetworks.bridge.rest.api.UploadSchemasApi;
+import org.sagebionetworks.bridge.rest.model.HealthDataSubmission;
+import org.sagebionetworks.bridge.rest.model.Role;
+import org.sagebionetworks.bridge.rest.model.UploadFieldDefinition;
+import org.sagebionetworks.bridge.rest.model.UploadFieldType;
+import org.sagebionetworks.bridge.rest.model.UploadSchema;
+import org.sagebionetworks.bridge.rest.model.UploadSchemaType;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Several participants each stream sensor readings to a schema whose one field is a JSON attachment of samples. We
+ * send the same readings two ways: one submitHealthData call per reading, the way HealthDataTest does it, and through
+ * a HealthDataSubmitter per participant that coalesces readings into batches. For each we report the latency per
+ * reading (until its record comes back), the readings per second, and the number of calls made.
+ */
+@Category(PerformanceTest.class)
+public class HealthDataSubmissionPerformanceTest {
+    private static final Logger LOG = LoggerFactory.getLogger(HealthDataSubmissionPerformanceTest.class);
+
+    private static final String APP_VERSION = "version 1.0.0, build 2";
+    private static final String PHONE_INFO = "Integration Tests";
+    private static final String SAMPLES_FIELD = "samples";
+    private static final int USER_COUNT = Integer.getInteger("perf.healthdata.users", 5);
+    private static final int READINGS_PER_USER = Integer.getInteger("perf.healthdata.readings", 200);
+    private static final int QUEUE_CAPACITY = Integer.getInteger("perf.healthdata.queue", 100);
+    private static final int MAX_BATCH_SIZE = Integer.getInteger("perf.healthdata.batch", 50);
+    private static final long LINGER_MILLIS = Long.getLong("perf.healthdata.lingerMillis", 200L);
+    private static final int THREAD_COUNT = Integer.getInteger("perf.threads", 20);
+
+    private TestUser admin;
+    private TestUser developer;
+    private List<TestUser> users;
+    private String schemaId;
+
+    @Before
+    public void before() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        developer = TestUserHelper.createAndSignInUser(HealthDataSubmissionPerformanceTest.class, false,
+                Role.DEVELOPER);
+
+        schemaId = Tests.randomIdentifier(HealthDataSubmissionPerformanceTest.class);
+        UploadFieldDefinition samplesField = new UploadFieldDefinition().name(SAMPLES_FIELD)
+                .type(UploadFieldType.ATTACHMENT_V2).mimeType("text/json").fileExtension(".json").required(true);
+        UploadSchema schema = new UploadSchema().schemaId(schemaId).revision(1L).name("Sensor readings")
+                .schemaType(UploadSchemaType.IOS_DATA).fieldDefinitions(ImmutableList.of(samplesField));
+        developer.getClient(UploadSchemasApi.class).createUploadSchema(schema).execute();
+
+        users = new ArrayList<>();
+        for (int i = 0; i < USER_COUNT; i++) {
+            users.add(TestUserHelper.createAndSignInUser(HealthDataSubmissionPerformanceTest.class, true));
+        }
+    }
+
+    @After
+    public void after() throws Exception {
+        ForAdminsApi adminsApi = admin.getClient(ForAdminsApi.class);
+        TeardownRegistry teardown = new TeardownRegistry(THREAD_COUNT);
+        if (schemaId != null) {
+            teardown.register("schema:" + schemaId, () -> adminsApi.deleteAllRevisionsOfUploadSchema(schemaId, true)
+                    .execute());
+        }
+        for (TestUser user : users) {
+            teardown.register("user:" + user.getUserId(), user::signOutAndDeleteUser);
+        }
+        if (developer != null) {
+            teardown.register("user:" + developer.getUserId(), developer::signOutAndDeleteUser);
+        }
+        teardown.deleteAll();
+    }
+
+    @Test
+    public void oneCallPerReadingVersusCoalesced() throws Exception {
+        int readingCount = USER_COUNT * READINGS_PER_USER;
+
+        LatencyStats oneByOne = new LatencyStats("submitHealthData, one call per reading");
+        oneByOne.runConcurrently(THREAD_COUNT, readingCount, i -> users.get(i % USER_COUNT)
+                .getClient(HealthDataApi.class).submitHealthData(reading(i)).execute().body());
+
+        // Each participant's readings are produced on their own thread, like a sensor on a phone, and block when
+        // that participant's queue is full.
+        LatencyStats coalesced = new LatencyStats("HealthDataSubmitter, per reading");
+        List<HealthDataSubmitter> submitters = new ArrayList<>();
+        Map<String, HealthDataSubmitter.Coalescer> coalescers = ImmutableMap.of(schemaId,
+                HealthDataSubmitter.concatenating(SAMPLES_FIELD));
+        for (TestUser user : users) {
+            HealthDataApi healthDataApi = user.getClient(HealthDataApi.class);
+            submitters.add(new HealthDataSubmitter(submission -> healthDataApi.submitHealthData(submission)
+                    .execute().body(), coalescers, Math.max(1, THREAD_COUNT / USER_COUNT), QUEUE_CAPACITY,
+                    MAX_BATCH_SIZE, LINGER_MILLIS));
+        }
+        LatencyStats producers = new LatencyStats("HealthDataSubmitter, per participant");
+        producers.runConcurrently(USER_COUNT, USER_COUNT, u -> {
+            try (HealthDataSubmitter submitter = submitters.get(u)) {
+                for (int i = 0; i < READINGS_PER_USER; i++) {
+                    long start = System.nanoTime();
+                    submitter.submit(reading(i)).whenComplete((record, e) -> {
+                        if (e == null) {
+                            coalesced.record(System.nanoTime() - start);
+                        } else {
+                            coalesced.recordError(e);
+                        }
+                    });
+                }
+            }
+            return null;
+        });
+        int calls = submitters.stream().mapToInt(HealthDataSubmitter::getCallCount).sum();
+
+        LOG.info("{}; {} calls", oneByOne, oneByOne.getCount() + oneByOne.getErrorCount());
+        LOG.info("{}", coalesced);
+        LOG.info("{} ({} readings/sec); {} calls, batches of up to {} after {} ms", producers,
+                String.format("%.1f", producers.getThroughput() * READINGS_PER_USER), calls, MAX_BATCH_SIZE,
+                LINGER_MILLIS);
+        assertEquals(0, oneByOne.getErrorCount() + coalesced.getErrorCount() + producers.getErrorCount());
+        assertEquals(readingCount, coalesced.getCount());
+    }
+
+    private HealthDataSubmission reading(int index) {
+        Map<String, Object> sample = ImmutableMap.<String, Object>of("t", System.currentTimeMillis(),
+                "x", Math.sin(index), "y", Math.cos(index), "z", index % 10);
+        return new HealthDataSubmission().appVersion(APP_VERSION).createdOn(DateTime.now()).phoneInfo(PHONE_INFO)
+                .schemaId(schemaId).schemaRevision(1L)
+                .data(ImmutableMap.of(SAMPLES_FIELD, ImmutableList.of(sample)));
+    }
+}
@@ -0,0 +1,232 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.joda.time.DateTime;
+
+import org.sagebionetworks.bridge.rest.model.HealthDataRecord;
+import org.sagebionetworks.bridge.rest.model.HealthDataSubmission;
+
+/**
+ * Queues HealthDataSubmissions and sends them on a bounded pool, for apps that record many small readings. The
+ * sender is the one-record call, for example submitHealthData for a participant or submitHealthDataForParticipant
+ * for a developer.
+ *
+ * Submissions to a schema with a Coalescer are held for up to lingerMillis, or until maxBatchSize of them have
+ * queued, and then merged into one submission. Every submission in the batch completes with the record of the merged
+ * submission. Submissions to any other schema, and survey and schemaless submissions, are sent one by one.
+ *
+ * When the queue is full, submit blocks until there's room, so a producer can't get ahead of the server.
+ */
+public class HealthDataSubmitter implements AutoCloseable {
+    private static final long CLOSE_CHECK_MILLIS = 100L;
+
+    /** Merges submissions to the same schema revision into one. */
+    @FunctionalInterface
+    public interface Coalescer {
+        HealthDataSubmission coalesce(List<HealthDataSubmission> batch);
+    }
+
+    private static final class Pending {
+        final HealthDataSubmission submission;
+        final CompletableFuture<HealthDataRecord> future = new CompletableFuture<>();
+        final long queuedNanos = System.nanoTime();
+
+        Pending(HealthDataSubmission submission) {
+            this.submission = submission;
+        }
+    }
+
+    private final ThrowingFunction<HealthDataSubmission, HealthDataRecord> sender;
+    private final Map<String, Coalescer> coalescers;
+    private final int maxBatchSize;
+    private final long lingerMillis;
+    private final BlockingQueue<Pending> queue;
+    private final ThreadPoolExecutor executor;
+    private final Thread dispatcher;
+    private final AtomicInteger submissionCount = new AtomicInteger();
+    private final AtomicInteger callCount = new AtomicInteger();
+    private volatile boolean closed;
+
+    /**
+     * @param sender sends one submission and returns its record
+     * @param coalescers coalescers by schema ID; may be empty
+     * @param threadCount the number of calls made at once
+     * @param queueCapacity the number of submissions that can wait before submit blocks
+     * @param maxBatchSize the most submissions merged into one
+     * @param lingerMillis how long the first submission of a batch waits for others
+     */
+    public HealthDataSubmitter(ThrowingFunction<HealthDataSubmission, HealthDataRecord> sender,
+            Map<String, Coalescer> coalescers, int threadCount, int queueCapacity, int maxBatchSize,
+            long lingerMillis) {
+        checkNotNull(sender);
+        checkNotNull(coalescers);
+        checkArgument(threadCount > 0, "threadCount must be positive");
+        checkArgument(queueCapacity > 0, "queueCapacity must be positive");
+        checkArgument(maxBatchSize > 0, "maxBatchSize must be positive");
+        checkArgument(lingerMillis > 0, "lingerMillis must be positive");
+        this.sender = sender;
+        this.coalescers = ImmutableMap.copyOf(coalescers);
+        this.maxBatchSize = maxBatchSize;
+        this.lingerMillis = lingerMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        // The dispatcher sends a batch itself when the pool is backed up, which stops it draining the queue.
+        this.executor = new ThreadPoolExecutor(threadCount, threadCount, 0L, MILLISECONDS,
+                new ArrayBlockingQueue<>(threadCount * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+        this.dispatcher = new Thread(this::dispatch, "health-data-submitter");
+        this.dispatcher.start();
+    }
+
+    /**
+     * A coalescer for schemas where one field holds a list of readings (usually a JSON attachment). The merged
+     * submission has every reading in that field, in the order submitted, and the earliest createdOn. All other
+     * values come from the first submission, so only use this where they don't vary from reading to reading.
+     */
+    @SuppressWarnings("unchecked")
+    public static Coalescer concatenating(String field) {
+        checkNotNull(field);
+        return batch -> {
+            HealthDataSubmission first = batch.get(0);
+            List<Object> readings = new ArrayList<>();
+            DateTime createdOn = first.getCreatedOn();
+            for (HealthDataSubmission submission : batch) {
+                readings.addAll((List<Object>) ((Map<String, Object>) submission.getData()).get(field));
+                if (submission.getCreatedOn().isBefore(createdOn)) {
+                    createdOn = submission.getCreatedOn();
+                }
+            }
+            Map<String, Object> data = new HashMap<>((Map<String, Object>) first.getData());
+            data.put(field, readings);
+            return new HealthDataSubmission().appVersion(first.getAppVersion()).createdOn(createdOn).data(data)
+                    .metadata(first.getMetadata()).phoneInfo(first.getPhoneInfo()).schemaId(first.getSchemaId())
+                    .schemaRevision(first.getSchemaRevision());
+        };
+    }
+
+    /** Queue the submission, blocking while the queue is full. Don't call this concurrently with close. */
+    public CompletableFuture<HealthDataRecord> submit(HealthDataSubmission submission) throws InterruptedException {
+        checkNotNull(submission);
+        checkState(!closed, "submitter is closed");
+        Pending pending = new Pending(submission);
+        queue.put(pending);
+        submissionCount.incrementAndGet();
+        return pending.future;
+    }
+
+    /** Send everything still queued, including partial batches, and wait for it to complete. */
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        dispatcher.join();
+        executor.shutdown();
+        executor.awaitTermination(1, HOURS);
+    }
+
+    private void dispatch() {
+        Map<String, List<Pending>> batches = new LinkedHashMap<>();
+        List<Pending> received = new ArrayList<>();
+        try {
+            while (true) {
+                Pending next = queue.poll(pollMillis(batches), MILLISECONDS);
+                if (next != null) {
+                    received.add(next);
+                    queue.drainTo(received);
+                    for (Pending pending : received) {
+                        add(batches, pending);
+                    }
+                    received.clear();
+                }
+                boolean draining = closed && queue.isEmpty();
+                long now = System.nanoTime();
+                for (Iterator<List<Pending>> i = batches.values().iterator(); i.hasNext();) {
+                    List<Pending> batch = i.next();
+                    if (draining || ageMillis(batch, now) >= lingerMillis) {
+                        i.remove();
+                        send(batch);
+                    }
+                }
+                if (draining) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Wake up in time to send the oldest batch when its linger is up, and often enough to notice close.
+    private long pollMillis(Map<String, List<Pending>> batches) {
+        long now = System.nanoTime();
+        long wait = Math.min(lingerMillis, CLOSE_CHECK_MILLIS);
+        for (List<Pending> batch : batches.values()) {
+            wait = Math.min(wait, lingerMillis - ageMillis(batch, now));
+        }
+        return Math.max(1L, wait);
+    }
+
+    private static long ageMillis(List<Pending> batch, long now) {
+        return MILLISECONDS.convert(now - batch.get(0).queuedNanos, NANOSECONDS);
+    }
+
+    private void add(Map<String, List<Pending>> batches, Pending pending) {
+        HealthDataSubmission submission = pending.submission;
+        if (submission.getSchemaId() == null || !coalescers.containsKey(submission.getSchemaId())) {
+            send(ImmutableList.of(pending));
+            return;
+        }
+        String key = submission.getSchemaId() + ":" + submission.getSchemaRevision();
+        List<Pending> batch = batches.computeIfAbsent(key, k -> new ArrayList<>());
+        batch.add(pending);
+        if (batch.size() >= maxBatchSize) {
+            batches.remove(key);
+            send(batch);
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        callCount.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                HealthDataSubmission submission = batch.get(0).submission;
+                if (batch.size() > 1) {
+                    submission = coalescers.get(submission.getSchemaId()).coalesce(batch.stream()
+                            .map(pending -> pending.submission).collect(toList()));
+                }
+                HealthDataRecord record = sender.apply(submission);
+                batch.forEach(pending -> pending.future.complete(record));
+            } catch (Exception e) {
+                batch.forEach(pending -> pending.future.completeExceptionally(e));
+            }
+        });
+    }
+
+    /** Submissions accepted by submit. */
+    public int getSubmissionCount() {
+        return submissionCount.get();
+    }
+
+    /** Calls made to the sender, after coalescing. */
+    public int getCallCount() {
+        return callCount.get();
+    }
+}
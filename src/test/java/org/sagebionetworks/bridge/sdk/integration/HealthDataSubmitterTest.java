@@ -0,0 +1,142 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import org.sagebionetworks.bridge.rest.model.HealthDataRecord;
+import org.sagebionetworks.bridge.rest.model.HealthDataSubmission;
+
+@SuppressWarnings("unchecked")
+public class HealthDataSubmitterTest {
+    private static final String SCHEMA_ID = "sensor-schema";
+    private static final String OTHER_SCHEMA_ID = "other-schema";
+    private static final long ONE_HOUR = 60 * 60 * 1000L;
+    private static final DateTime CREATED_ON = DateTime.parse("2021-03-04T05:06:07.000Z");
+
+    private final List<HealthDataSubmission> sent = Collections.synchronizedList(new ArrayList<>());
+
+    private HealthDataRecord send(HealthDataSubmission submission) {
+        sent.add(submission);
+        return new HealthDataRecord();
+    }
+
+    private HealthDataSubmitter makeSubmitter(int maxBatchSize, long lingerMillis) {
+        return new HealthDataSubmitter(this::send, ImmutableMap.of(SCHEMA_ID,
+                HealthDataSubmitter.concatenating("samples")), 2, 10, maxBatchSize, lingerMillis);
+    }
+
+    private static HealthDataSubmission reading(String schemaId, int value) {
+        return new HealthDataSubmission().appVersion("version 1.0.0, build 2").phoneInfo("Integration Tests")
+                .createdOn(CREATED_ON.plusSeconds(value)).schemaId(schemaId).schemaRevision(1L)
+                .data(ImmutableMap.of("samples", ImmutableList.of(value)));
+    }
+
+    @Test
+    public void uncoalescedSchemaIsSentOneByOne() throws Exception {
+        HealthDataSubmitter submitter = makeSubmitter(5, ONE_HOUR);
+        // The records are all equal, so count them by identity.
+        Set<HealthDataRecord> records = Collections.synchronizedSet(Collections.newSetFromMap(
+                new IdentityHashMap<>()));
+        for (int i = 0; i < 10; i++) {
+            submitter.submit(reading(OTHER_SCHEMA_ID, i)).thenAccept(records::add);
+        }
+        submitter.close();
+
+        assertEquals(10, submitter.getSubmissionCount());
+        assertEquals(10, submitter.getCallCount());
+        assertEquals(10, sent.size());
+        assertEquals(10, records.size());
+    }
+
+    @Test
+    public void fullBatchesAreCoalesced() throws Exception {
+        List<CompletableFuture<HealthDataRecord>> futures = new ArrayList<>();
+        try (HealthDataSubmitter submitter = makeSubmitter(5, ONE_HOUR)) {
+            for (int i = 0; i < 10; i++) {
+                futures.add(submitter.submit(reading(SCHEMA_ID, i)));
+            }
+            // Both batches are full, so they don't wait for the linger.
+            assertSame(futures.get(0).get(), futures.get(4).get());
+            assertSame(futures.get(5).get(), futures.get(9).get());
+            assertEquals(2, submitter.getCallCount());
+        }
+
+        assertEquals(2, sent.size());
+        List<Integer> samples = new ArrayList<>();
+        for (HealthDataSubmission submission : sent) {
+            samples.addAll((List<Integer>) ((Map<String, Object>) submission.getData()).get("samples"));
+            assertEquals(SCHEMA_ID, submission.getSchemaId());
+        }
+        Collections.sort(samples);
+        assertEquals(ImmutableList.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), samples);
+    }
+
+    @Test
+    public void partialBatchIsSentAfterLinger() throws Exception {
+        try (HealthDataSubmitter submitter = makeSubmitter(100, 50L)) {
+            CompletableFuture<HealthDataRecord> first = submitter.submit(reading(SCHEMA_ID, 0));
+            CompletableFuture<HealthDataRecord> second = submitter.submit(reading(SCHEMA_ID, 1));
+            assertSame(first.get(), second.get());
+        }
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    public void closeSendsPartialBatch() throws Exception {
+        HealthDataSubmitter submitter = makeSubmitter(100, ONE_HOUR);
+        for (int i = 2; i >= 0; i--) {
+            submitter.submit(reading(SCHEMA_ID, i));
+        }
+        submitter.close();
+
+        assertEquals(1, sent.size());
+        HealthDataSubmission submission = sent.get(0);
+        assertEquals(ImmutableList.of(2, 1, 0), ((Map<String, Object>) submission.getData()).get("samples"));
+        // The earliest createdOn in the batch.
+        assertEquals(CREATED_ON, submission.getCreatedOn());
+        assertEquals("version 1.0.0, build 2", submission.getAppVersion());
+    }
+
+    @Test
+    public void failureFailsEveryFutureInTheBatch() throws Exception {
+        List<CompletableFuture<HealthDataRecord>> futures = new ArrayList<>();
+        try (HealthDataSubmitter submitter = new HealthDataSubmitter(submission -> {
+            throw new IllegalStateException("server error");
+        }, ImmutableMap.of(SCHEMA_ID, HealthDataSubmitter.concatenating("samples")), 2, 10, 3, ONE_HOUR)) {
+            for (int i = 0; i < 3; i++) {
+                futures.add(submitter.submit(reading(SCHEMA_ID, i)));
+            }
+        }
+        for (CompletableFuture<HealthDataRecord> future : futures) {
+            try {
+                future.get();
+                fail("expected exception");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void submitAfterCloseThrows() throws Exception {
+        HealthDataSubmitter submitter = makeSubmitter(5, ONE_HOUR);
+        submitter.close();
+        submitter.submit(reading(SCHEMA_ID, 0));
+    }
+}
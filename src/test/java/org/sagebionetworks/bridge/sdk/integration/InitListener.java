@@ -119,6 +119,8 @@ public class InitListener extends RunListener {
             LOG.info("  “{}” consent now enrolls participants in study “{}”", subpop.getGuid(), STUDY_ID_1);
         }
         
+        // Admins created by TestUserHelper, including AdminSessionPool's, are put in the Sage Bionetworks
+        // organization, so the superadmin has to create it in the shared app before anything uses the pool there.
         admin.getClient(ForSuperadminsApi.class).adminChangeApp(new SignIn().appId(SHARED_APP_ID)).execute();
         try {
             orgsApi.getOrganization(SAGE_ID).execute();
@@ -135,6 +137,6 @@ public class InitListener extends RunListener {
     }
     @Override
     public void testRunFinished(Result result) throws Exception {
-        // noop
+        AdminSessionPool.deleteAdmins();
     }
 }
\ No newline at end of file
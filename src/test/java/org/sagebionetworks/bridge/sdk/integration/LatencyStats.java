@@ -0,0 +1,139 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects call latencies and errors for the performance tests. Safe to record from many threads. Errors are
+ * counted by exception class so a run can report its error mix.
+ */
+public class LatencyStats {
+
+    private final String name;
+    private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+    private final ConcurrentMap<String, AtomicInteger> errors = new ConcurrentHashMap<>();
+    private volatile long elapsedNanos;
+
+    public LatencyStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Time one call. Failures are counted and rethrown. */
+    public <T> T time(ThrowingFunction<Void, T> call) throws Exception {
+        long start = System.nanoTime();
+        try {
+            T result = call.apply(null);
+            record(System.nanoTime() - start);
+            return result;
+        } catch (Exception e) {
+            recordError(e);
+            throw e;
+        }
+    }
+
+    public void record(long nanos) {
+        latencies.add(nanos);
+    }
+
+    public void recordError(Throwable throwable) {
+        errors.computeIfAbsent(throwable.getClass().getSimpleName(), k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * Call the function for every index from 0 to count-1, spread over a fixed pool of threads, and time each
+     * call. Failures, assertion errors included, are recorded, not thrown, so one bad call does not stop the
+     * run. Blocks until every call has completed.
+     */
+    public void runConcurrently(int threads, int count, ThrowingFunction<Integer, ?> call)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < count; i++) {
+                final int index = i;
+                executor.execute(() -> {
+                    long callStart = System.nanoTime();
+                    try {
+                        call.apply(index);
+                        record(System.nanoTime() - callStart);
+                    } catch (Throwable t) {
+                        recordError(t);
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, HOURS);
+            elapsedNanos += System.nanoTime() - start;
+        }
+    }
+
+    public int getCount() {
+        return latencies.size();
+    }
+
+    public int getErrorCount() {
+        int total = 0;
+        for (AtomicInteger count : errors.values()) {
+            total += count.get();
+        }
+        return total;
+    }
+
+    public Map<String, Integer> getErrors() {
+        Map<String, Integer> map = new TreeMap<>();
+        errors.forEach((key, value) -> map.put(key, value.get()));
+        return map;
+    }
+
+    /** Latency at the given percentile (0-100), in milliseconds. */
+    public long percentileMillis(double percentile) {
+        List<Long> sorted;
+        synchronized (latencies) {
+            sorted = new ArrayList<>(latencies);
+        }
+        if (sorted.isEmpty()) {
+            return 0L;
+        }
+        Collections.sort(sorted);
+        int index = (int)Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        index = Math.max(0, Math.min(sorted.size() - 1, index));
+        return MILLISECONDS.convert(sorted.get(index), NANOSECONDS);
+    }
+
+    /** Successful calls per second over the time spent in runConcurrently. */
+    public double getThroughput() {
+        if (elapsedNanos == 0L) {
+            return 0.0;
+        }
+        return getCount() / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Calls filled in only through time() or record() have no elapsed time of their own, so their throughput would
+     * read 0.0/sec; for those only the latencies are shown.
+     */
+    @Override
+    public String toString() {
+        String throughput = (elapsedNanos == 0L) ? "" : String.format(" %.1f/sec,", getThroughput());
+        return String.format("%s: n=%d,%s p50=%dms, p90=%dms, p99=%dms, max=%dms, errors=%s", name, getCount(),
+                throughput, percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(100),
+                getErrors());
+    }
+}
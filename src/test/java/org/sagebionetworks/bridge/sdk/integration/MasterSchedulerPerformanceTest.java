@@ -0,0 +1,151 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.ForSuperadminsApi;
+import org.sagebionetworks.bridge.rest.model.MasterSchedulerConfig;
+import org.sagebionetworks.bridge.rest.model.MasterSchedulerConfigList;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Creates hundreds of scheduler configs with a mix of cron expressions and request templates of different sizes,
+ * measuring getAllSchedulerConfigs latency and response size as the table grows. Then several threads bump the
+ * versions of a few configs at once, to show how often an update loses the race with another update.
+ */
+@Category(PerformanceTest.class)
+public class MasterSchedulerPerformanceTest {
+    private static final Logger LOG = LoggerFactory.getLogger(MasterSchedulerPerformanceTest.class);
+
+    private static final int CONFIG_COUNT = Integer.getInteger("perf.scheduler.configs", 300);
+    private static final int LIST_CALLS_PER_STEP = Integer.getInteger("perf.scheduler.listCalls", 20);
+    private static final int UPDATE_COUNT = Integer.getInteger("perf.scheduler.updates", 500);
+    private static final int CONTENDED_CONFIG_COUNT = Integer.getInteger("perf.scheduler.contendedConfigs", 5);
+    private static final int THREAD_COUNT = Integer.getInteger("perf.threads", 20);
+    private static final int STEPS = 4;
+    private static final List<String> CRON_FORMATS = ImmutableList.of(
+            "0 %d %d * * ?",
+            "0 %d %d ? * MON-FRI",
+            "0 %d/15 * * * ?",
+            "0 %d %d 1 * ?",
+            "0 %d %d L * ?");
+
+    private TestUser admin;
+    private ForSuperadminsApi superadminApi;
+    private List<String> scheduleIds;
+
+    @Before
+    public void before() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        superadminApi = admin.getClient(ForSuperadminsApi.class);
+        scheduleIds = new ArrayList<>();
+    }
+
+    @After
+    public void after() throws Exception {
+        TeardownRegistry teardown = new TeardownRegistry();
+        for (String scheduleId : scheduleIds) {
+            teardown.register(scheduleId, () -> superadminApi.deleteSchedulerConfig(scheduleId).execute());
+        }
+        teardown.deleteAll();
+    }
+
+    @Test
+    public void listLatencyAsConfigsGrow() throws Exception {
+        LatencyStats create = new LatencyStats("createSchedulerConfig");
+        int perStep = CONFIG_COUNT / STEPS;
+        for (int step = 0; step <= STEPS; step++) {
+            if (step > 0) {
+                int start = (step - 1) * perStep;
+                create.runConcurrently(THREAD_COUNT, perStep, i -> createConfig(start + i));
+            }
+            // Each list call returns every config, so measure on one thread to keep the server's work per call
+            // comparable from step to step.
+            LatencyStats list = new LatencyStats("getAllSchedulerConfigs (" + step * perStep + " created)");
+            MasterSchedulerConfigList configs = null;
+            for (int i = 0; i < LIST_CALLS_PER_STEP; i++) {
+                configs = list.time(v -> superadminApi.getAllSchedulerConfigs().execute().body());
+            }
+            LOG.info("{}, {} configs, {} bytes", list, configs.getItems().size(),
+                    RestUtils.GSON.toJson(configs).getBytes(UTF_8).length);
+        }
+        LOG.info(create.toString());
+        assertEquals(0, create.getErrorCount());
+    }
+
+    @Test
+    public void concurrentVersionBumps() throws Exception {
+        for (int i = 0; i < CONTENDED_CONFIG_COUNT; i++) {
+            createConfig(i);
+        }
+        // Read-modify-write: each update carries the version it read, so an update that loses the race to
+        // another update of the same config is rejected.
+        AtomicInteger successes = new AtomicInteger();
+        LatencyStats updates = new LatencyStats("updateSchedulerConfig (" + CONTENDED_CONFIG_COUNT
+                + " configs, " + THREAD_COUNT + " threads)");
+        updates.runConcurrently(THREAD_COUNT, UPDATE_COUNT, i -> {
+            String scheduleId = scheduleIds.get(i % CONTENDED_CONFIG_COUNT);
+            MasterSchedulerConfig config = superadminApi.getSchedulerConfig(scheduleId).execute().body();
+            config.setCronSchedule(cronSchedule(i));
+            MasterSchedulerConfig updated = superadminApi.updateSchedulerConfig(scheduleId, config).execute()
+                    .body();
+            successes.incrementAndGet();
+            return updated;
+        });
+        LOG.info(updates.toString());
+        LOG.info("{} of {} updates succeeded, {} lost a race", successes.get(), UPDATE_COUNT,
+                updates.getErrorCount());
+
+        // Every successful update bumped a version exactly once.
+        long versionBumps = 0;
+        for (String scheduleId : scheduleIds) {
+            versionBumps += superadminApi.getSchedulerConfig(scheduleId).execute().body().getVersion() - 1;
+        }
+        assertEquals(successes.get(), versionBumps);
+        assertTrue(successes.get() > 0);
+    }
+
+    private MasterSchedulerConfig createConfig(int index) throws Exception {
+        MasterSchedulerConfig config = Tests.getMastSchedulerConfig();
+        config.setScheduleId(Tests.randomIdentifier(MasterSchedulerPerformanceTest.class) + "-" + index);
+        config.setCronSchedule(cronSchedule(index));
+        config.setRequestTemplate(requestTemplate(index));
+        MasterSchedulerConfig created = superadminApi.createSchedulerConfig(config).execute().body();
+        synchronized (scheduleIds) {
+            scheduleIds.add(config.getScheduleId());
+        }
+        return created;
+    }
+
+    private static String cronSchedule(int index) {
+        return String.format(CRON_FORMATS.get(index % CRON_FORMATS.size()), index % 60, (index / 60) % 24);
+    }
+
+    // Templates grow from 1 to 64 entries, so the list response grows faster than the config count.
+    private static Map<String, Object> requestTemplate(int index) {
+        int entries = 1 << (2 * (index % 4));
+        Map<String, Object> template = new LinkedHashMap<>();
+        for (int i = 0; i < entries; i++) {
+            template.put("key" + i, (i % 2 == 0) ? "value-" + index + "-" + i : Boolean.TRUE);
+        }
+        return template;
+    }
+}
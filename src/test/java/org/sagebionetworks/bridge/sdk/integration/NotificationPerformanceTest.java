@@ -0,0 +1,225 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.sagebionetworks.bridge.rest.model.Role.DEVELOPER;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.NotificationsApi;
+import org.sagebionetworks.bridge.rest.api.StudiesApi;
+import org.sagebionetworks.bridge.rest.model.Criteria;
+import org.sagebionetworks.bridge.rest.model.Enrollment;
+import org.sagebionetworks.bridge.rest.model.NotificationMessage;
+import org.sagebionetworks.bridge.rest.model.NotificationRegistration;
+import org.sagebionetworks.bridge.rest.model.NotificationTopic;
+import org.sagebionetworks.bridge.rest.model.Study;
+import org.sagebionetworks.bridge.rest.model.SubscriptionRequest;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Registers thousands of participants for push notifications, subscribes them to many topics, then measures
+ * sendNotificationToTopic, and the participants' own notification APIs with and without topic sends running at
+ * the same time.
+ *
+ * Registrations use made-up device tokens, so SNS accepts the endpoints and publishes but nothing is delivered;
+ * run it against an environment with a sandbox SNS application. There are no SMS registrations, since the tests
+ * have one real phone number and every send would text it. The criteria-managed topics match participants of a
+ * study created for the test, so registrations made by other tests are never subscribed to them.
+ */
+@Category(PerformanceTest.class)
+public class NotificationPerformanceTest {
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationPerformanceTest.class);
+
+    private static final int USER_COUNT = Integer.getInteger("perf.notification.users", 2000);
+    private static final int MANUAL_TOPICS = Integer.getInteger("perf.notification.manualTopics", 20);
+    private static final int CRITERIA_TOPICS = Integer.getInteger("perf.notification.criteriaTopics", 10);
+    private static final int TOPICS_PER_USER = Integer.getInteger("perf.notification.topicsPerUser", 5);
+    private static final int SENDS = Integer.getInteger("perf.notification.sends", 100);
+    private static final int CALLS = Integer.getInteger("perf.notification.calls", 1000);
+    private static final int THREAD_COUNT = Integer.getInteger("perf.threads", 20);
+    private static final String OS_NAME = "iPhone OS";
+
+    private TestUser admin;
+    private TestUser developer;
+    private String studyId;
+    private List<String> manualTopicGuids;
+    private List<String> criteriaTopicGuids;
+    private List<TestUser> users;
+    private Map<String, String> registrationGuids;
+
+    @Before
+    public void before() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        developer = TestUserHelper.createAndSignInUser(NotificationPerformanceTest.class, false, DEVELOPER);
+        manualTopicGuids = new ArrayList<>();
+        criteriaTopicGuids = new ArrayList<>();
+        users = new ArrayList<>();
+        registrationGuids = new ConcurrentHashMap<>();
+
+        studyId = Tests.randomIdentifier(NotificationPerformanceTest.class);
+        admin.getClient(StudiesApi.class).createStudy(new Study().identifier(studyId).name(studyId)).execute();
+
+        NotificationsApi notificationsApi = developer.getClient(NotificationsApi.class);
+        for (int i = 0; i < MANUAL_TOPICS; i++) {
+            NotificationTopic topic = new NotificationTopic().name("Manual topic " + i).shortName("manual" + i);
+            manualTopicGuids.add(notificationsApi.createNotificationTopic(topic).execute().body().getGuid());
+        }
+        for (int i = 0; i < CRITERIA_TOPICS; i++) {
+            NotificationTopic topic = new NotificationTopic().name("Criteria topic " + i).shortName("auto" + i)
+                    .criteria(new Criteria().allOfStudyIds(ImmutableList.of(studyId)));
+            criteriaTopicGuids.add(notificationsApi.createNotificationTopic(topic).execute().body().getGuid());
+        }
+    }
+
+    @After
+    public void after() throws Exception {
+        ForAdminsApi adminsApi = admin.getClient(ForAdminsApi.class);
+        TeardownRegistry teardown = new TeardownRegistry(THREAD_COUNT);
+
+        String study = teardown.register("study:" + studyId, () -> adminsApi.deleteStudy(studyId, true).execute());
+        List<String> topics = new ArrayList<>();
+        for (String guid : manualTopicGuids) {
+            topics.add(teardown.register("topic:" + guid, () -> adminsApi.deleteNotificationTopic(guid, true)
+                    .execute()));
+        }
+        for (String guid : criteriaTopicGuids) {
+            topics.add(teardown.register("topic:" + guid, () -> adminsApi.deleteNotificationTopic(guid, true)
+                    .execute(), study));
+        }
+        // Deleting the participant deletes their registrations and subscriptions.
+        topics.add(study);
+        String[] referenced = topics.toArray(new String[0]);
+        for (TestUser user : users) {
+            teardown.register("user:" + user.getUserId(), user::signOutAndDeleteUser, referenced);
+        }
+        if (developer != null) {
+            teardown.register("user:" + developer.getUserId(), developer::signOutAndDeleteUser);
+        }
+        teardown.deleteAll();
+    }
+
+    @Test
+    public void topicSendsAndParticipantApis() throws Exception {
+        StudiesApi studiesApi = admin.getClient(StudiesApi.class);
+
+        LatencyStats signUp = new LatencyStats("create user + enroll");
+        LatencyStats register = new LatencyStats("createNotificationRegistration");
+        LatencyStats subscribe = new LatencyStats("subscribeToTopics (" + TOPICS_PER_USER + " topics)");
+        LatencyStats setup = new LatencyStats("participant setup");
+        setup.runConcurrently(THREAD_COUNT, USER_COUNT, i -> {
+            TestUser user = signUp.time(v -> {
+                TestUser created = new TestUserHelper.Builder(NotificationPerformanceTest.class)
+                        .withConsentUser(true).createAndSignInUser();
+                synchronized (users) {
+                    users.add(created);
+                }
+                studiesApi.enrollParticipant(studyId, new Enrollment().userId(created.getUserId())).execute();
+                return created;
+            });
+            ForConsentedUsersApi usersApi = user.getClient(ForConsentedUsersApi.class);
+            NotificationRegistration registration = new NotificationRegistration().deviceId(deviceToken(i))
+                    .osName(OS_NAME);
+            String guid = register.time(v -> usersApi.createNotificationRegistration(registration).execute()
+                    .body().getGuid());
+            registrationGuids.put(user.getUserId(), guid);
+            SubscriptionRequest request = new SubscriptionRequest();
+            for (int j = 0; j < Math.min(TOPICS_PER_USER, MANUAL_TOPICS); j++) {
+                request.addTopicGuidsItem(manualTopicGuids.get((i + j) % MANUAL_TOPICS));
+            }
+            return subscribe.time(v -> usersApi.subscribeToTopics(guid, request).execute());
+        });
+        LOG.info(signUp.toString());
+        LOG.info(register.toString());
+        LOG.info(subscribe.toString());
+        assertEquals(0, setup.getErrorCount());
+
+        LatencyStats idle = measureParticipantApis("participant notification APIs, no sends");
+        LatencyStats sends = new LatencyStats("sendNotificationToTopic");
+        LatencyStats busy = whileSending(sends, () -> measureParticipantApis(
+                "participant notification APIs, during sends"));
+
+        LOG.info(sends.toString());
+        LOG.info(idle.toString());
+        LOG.info(busy.toString());
+        assertEquals(0, sends.getErrorCount() + idle.getErrorCount() + busy.getErrorCount());
+    }
+
+    private LatencyStats measureParticipantApis(String name) throws Exception {
+        LatencyStats stats = new LatencyStats(name);
+        stats.runConcurrently(THREAD_COUNT, CALLS, i -> {
+            TestUser user = users.get(i % users.size());
+            ForConsentedUsersApi usersApi = user.getClient(ForConsentedUsersApi.class);
+            usersApi.getNotificationRegistrations().execute();
+            return usersApi.getTopicSubscriptions(registrationGuids.get(user.getUserId())).execute();
+        });
+        return stats;
+    }
+
+    // Sends to every topic in turn, on a few background threads, until the measurement finishes (and at least
+    // SENDS times).
+    private LatencyStats whileSending(LatencyStats sends, ThrowingFunction<Void, LatencyStats> measurement)
+            throws Exception {
+        List<String> allTopics = new ArrayList<>(manualTopicGuids);
+        allTopics.addAll(criteriaTopicGuids);
+        NotificationsApi notificationsApi = developer.getClient(NotificationsApi.class);
+        NotificationMessage message = new NotificationMessage().subject("Performance test")
+                .message("Performance test message.");
+
+        int senderCount = Math.max(1, THREAD_COUNT / 4);
+        ExecutorService senders = Executors.newFixedThreadPool(senderCount);
+        AtomicBoolean measuring = new AtomicBoolean(true);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < senderCount; t++) {
+            int offset = t;
+            futures.add(senders.submit(() -> {
+                for (int i = offset; measuring.get() || i < SENDS; i += senderCount) {
+                    String topicGuid = allTopics.get(i % allTopics.size());
+                    try {
+                        sends.time(v -> notificationsApi.sendNotificationToTopic(topicGuid, message).execute());
+                    } catch (Exception e) {
+                        // Counted by sends.
+                    }
+                }
+            }));
+        }
+        try {
+            return measurement.apply(null);
+        } finally {
+            measuring.set(false);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            senders.shutdown();
+        }
+    }
+
+    // APNS tokens are 32 bytes, written as hex.
+    private static String deviceToken(int index) {
+        Random random = new Random(index);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 64; i++) {
+            sb.append(Character.forDigit(random.nextInt(16), 16));
+        }
+        return sb.toString();
+    }
+}
@@ -206,8 +206,6 @@ public class OAuthTest {
                 .createAndSignInUser();
         String userId = user.getUserId();
 
-        admin.getClient(ForSuperadminsApi.class).adminChangeApp(SHARED_SIGNIN).execute();
-        
         user2 = new TestUserHelper.Builder(OAuthTest.class).withAppId(SHARED_APP_ID)
                 .withSignUp(new SignUp().appId(SHARED_APP_ID)
                 .roles(ImmutableList.of(DEVELOPER)).synapseUserId(synapseUserId))
@@ -227,7 +225,7 @@ public class OAuthTest {
         info = appsApi.changeApp(API_SIGNIN).execute().body();
         assertEquals(userId, info.getId());
         
-        // Before the admin switches back to the API app, delete this user in the shared app
+        // Delete this user in the shared app
         user2.signOutAndDeleteUser();
         
         // Verify this has an immediate effect on the other user
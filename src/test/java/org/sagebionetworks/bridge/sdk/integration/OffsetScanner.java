@@ -0,0 +1,136 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads every item from an API that pages by offsetBy/pageSize and reports a total (assessments, external IDs,
+ * account summaries). The first page is read to learn the total; the remaining pages are then fetched
+ * concurrently, and their items handed to the caller in order, on the caller's thread. At most bufferPages pages
+ * are fetched ahead of the caller, so a slow consumer doesn't pull the whole collection into memory.
+ *
+ * Offsets are fixed by the total on the first page. If items are created or deleted during the scan, some may be
+ * skipped or seen twice, the same as with a serial offset scan.
+ */
+public class OffsetScanner<T> {
+
+    /** One page from the API. */
+    public static final class Page<T> {
+        private final List<T> items;
+        private final int total;
+
+        public Page(List<T> items, Integer total) {
+            this.items = checkNotNull(items);
+            this.total = (total == null) ? items.size() : total;
+        }
+    }
+
+    @FunctionalInterface
+    public interface PageFetcher<T> {
+        Page<T> fetch(int offsetBy, int pageSize) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface ItemHandler<T> {
+        void handle(T item) throws Exception;
+    }
+
+    private final PageFetcher<T> fetcher;
+    private final int pageSize;
+    private final int threadCount;
+    private final int bufferPages;
+    private final LatencyStats pageStats;
+    private int itemCount;
+    private long elapsedNanos;
+
+    /**
+     * @param name used to label the page fetch statistics
+     * @param fetcher reads one page
+     * @param pageSize the page size to request
+     * @param threadCount the number of pages fetched at once
+     * @param bufferPages the most pages fetched ahead of the caller; at least threadCount
+     */
+    public OffsetScanner(String name, PageFetcher<T> fetcher, int pageSize, int threadCount, int bufferPages) {
+        checkNotNull(fetcher);
+        checkArgument(pageSize > 0, "pageSize must be positive");
+        checkArgument(threadCount > 0, "threadCount must be positive");
+        checkArgument(bufferPages >= threadCount, "bufferPages must be at least threadCount");
+        this.fetcher = fetcher;
+        this.pageSize = pageSize;
+        this.threadCount = threadCount;
+        this.bufferPages = bufferPages;
+        this.pageStats = new LatencyStats(name + " (page fetch)");
+    }
+
+    /** Pass every item to the handler, in offset order. Blocks until done; a failed page fetch is thrown. */
+    public void scan(ItemHandler<T> handler) throws Exception {
+        long start = System.nanoTime();
+        Page<T> first = pageStats.time(v -> fetcher.fetch(0, pageSize));
+        for (T item : first.items) {
+            handler.handle(item);
+        }
+        itemCount = first.items.size();
+
+        // The server may cap the page size below what we asked for; step by what it actually returned.
+        int step = (first.items.isEmpty() || first.items.size() >= first.total) ? pageSize : first.items.size();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        Deque<Future<Page<T>>> pending = new ArrayDeque<>();
+        try {
+            int nextOffset = first.items.size();
+            while (nextOffset < first.total || !pending.isEmpty()) {
+                while (nextOffset < first.total && pending.size() < bufferPages) {
+                    int offset = nextOffset;
+                    pending.add(executor.submit(() -> pageStats.time(v -> fetcher.fetch(offset, step))));
+                    nextOffset += step;
+                }
+                Page<T> page = get(pending.poll());
+                for (T item : page.items) {
+                    handler.handle(item);
+                }
+                itemCount += page.items.size();
+            }
+        } finally {
+            executor.shutdownNow();
+            elapsedNanos = System.nanoTime() - start;
+        }
+    }
+
+    private static <T> Page<T> get(Future<Page<T>> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public LatencyStats getPageStats() {
+        return pageStats;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public double getPagesPerSecond() {
+        return (elapsedNanos == 0) ? 0 : pageStats.getCount() / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s, %d items, %.1f pages/sec over %dms", pageStats, itemCount,
+                getPagesPerSecond(), NANOSECONDS.toMillis(elapsedNanos));
+    }
+}
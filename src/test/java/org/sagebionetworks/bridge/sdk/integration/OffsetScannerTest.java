@@ -0,0 +1,123 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.sagebionetworks.bridge.rest.model.Role.DEVELOPER;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.ORG_ID_1;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.randomIdentifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.AssessmentsApi;
+import org.sagebionetworks.bridge.rest.api.OrganizationsApi;
+import org.sagebionetworks.bridge.rest.api.ParticipantsApi;
+import org.sagebionetworks.bridge.rest.api.TagsApi;
+import org.sagebionetworks.bridge.rest.model.AccountSummary;
+import org.sagebionetworks.bridge.rest.model.AccountSummaryList;
+import org.sagebionetworks.bridge.rest.model.AccountSummarySearch;
+import org.sagebionetworks.bridge.rest.model.Assessment;
+import org.sagebionetworks.bridge.rest.model.AssessmentList;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Compares a serial offset scan (one thread, no read-ahead) with a concurrent one, over assessments created for
+ * the test and over the app's account summaries.
+ */
+@Category(PerformanceTest.class)
+public class OffsetScannerTest {
+    private static final Logger LOG = LoggerFactory.getLogger(OffsetScannerTest.class);
+
+    private static final int ASSESSMENT_COUNT = Integer.getInteger("perf.scan.assessments", 300);
+    private static final int PAGE_SIZE = Integer.getInteger("perf.scan.pageSize", 20);
+    private static final int THREAD_COUNT = Integer.getInteger("perf.threads", 20);
+
+    private TestUser admin;
+    private TestUser developer;
+    private String markerTag;
+
+    @Before
+    public void before() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        markerTag = "test:" + randomIdentifier(OffsetScannerTest.class);
+        developer = new TestUserHelper.Builder(OffsetScannerTest.class).withRoles(DEVELOPER).createAndSignInUser();
+        admin.getClient(OrganizationsApi.class).addMember(ORG_ID_1, developer.getUserId()).execute();
+    }
+
+    @After
+    public void after() throws Exception {
+        if (developer != null) {
+            developer.signOutAndDeleteUser();
+        }
+        AssessmentsApi api = admin.getClient(AssessmentsApi.class);
+        TeardownRegistry teardown = new TeardownRegistry(THREAD_COUNT);
+        new OffsetScanner<Assessment>("cleanup", (offset, pageSize) -> assessmentPage(api, offset, pageSize),
+                PAGE_SIZE, THREAD_COUNT, THREAD_COUNT).scan(assessment -> teardown.register(assessment.getGuid(),
+                        () -> api.deleteAssessment(assessment.getGuid(), true).execute()));
+        teardown.deleteAll();
+        admin.getClient(TagsApi.class).deleteTag(markerTag).execute();
+    }
+
+    @Test
+    public void assessments() throws Exception {
+        AssessmentsApi assessmentsApi = developer.getClient(AssessmentsApi.class);
+        String prefix = randomIdentifier(OffsetScannerTest.class);
+        LatencyStats create = new LatencyStats("createAssessment");
+        create.runConcurrently(THREAD_COUNT, ASSESSMENT_COUNT, i -> assessmentsApi.createAssessment(
+                new Assessment().identifier(prefix + "-" + i).title("Assessment " + i).osName("Android")
+                        .ownerId(ORG_ID_1).tags(ImmutableList.of(markerTag))).execute().body());
+        assertEquals(0, create.getErrorCount());
+
+        OffsetScanner<Assessment> serial = new OffsetScanner<>("getAssessments, serial",
+                (offset, pageSize) -> assessmentPage(assessmentsApi, offset, pageSize), PAGE_SIZE, 1, 1);
+        List<String> serialGuids = new ArrayList<>();
+        serial.scan(assessment -> serialGuids.add(assessment.getGuid()));
+
+        OffsetScanner<Assessment> concurrent = new OffsetScanner<>("getAssessments, concurrent",
+                (offset, pageSize) -> assessmentPage(assessmentsApi, offset, pageSize), PAGE_SIZE, THREAD_COUNT,
+                THREAD_COUNT * 2);
+        List<String> concurrentGuids = new ArrayList<>();
+        concurrent.scan(assessment -> concurrentGuids.add(assessment.getGuid()));
+
+        LOG.info(serial.toString());
+        LOG.info(concurrent.toString());
+        assertEquals(ASSESSMENT_COUNT, serialGuids.size());
+        assertEquals(serialGuids, concurrentGuids);
+    }
+
+    @Test
+    public void accountSummaries() throws Exception {
+        ParticipantsApi participantsApi = admin.getClient(ParticipantsApi.class);
+        OffsetScanner.PageFetcher<AccountSummary> fetcher = (offset, pageSize) -> {
+            AccountSummaryList list = participantsApi.searchAccountSummaries(new AccountSummarySearch()
+                    .offsetBy(offset).pageSize(pageSize)).execute().body();
+            return new OffsetScanner.Page<>(list.getItems(), list.getTotal());
+        };
+        // Other tests create and delete accounts, so the two scans aren't expected to match exactly.
+        OffsetScanner<AccountSummary> serial = new OffsetScanner<>("searchAccountSummaries, serial", fetcher,
+                PAGE_SIZE, 1, 1);
+        serial.scan(summary -> {});
+        OffsetScanner<AccountSummary> concurrent = new OffsetScanner<>("searchAccountSummaries, concurrent",
+                fetcher, PAGE_SIZE, THREAD_COUNT, THREAD_COUNT * 2);
+        concurrent.scan(summary -> {});
+
+        LOG.info(serial.toString());
+        LOG.info(concurrent.toString());
+    }
+
+    private OffsetScanner.Page<Assessment> assessmentPage(AssessmentsApi api, int offset, int pageSize)
+            throws Exception {
+        AssessmentList list = api.getAssessments(offset, pageSize, ImmutableList.of(markerTag), false).execute()
+                .body();
+        return new OffsetScanner.Page<>(list.getItems(), list.getTotal());
+    }
+}
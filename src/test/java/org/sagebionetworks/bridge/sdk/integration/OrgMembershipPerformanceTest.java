@@ -0,0 +1,166 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.sagebionetworks.bridge.rest.model.Role.DEVELOPER;
+import static org.sagebionetworks.bridge.rest.model.Role.ORG_ADMIN;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.PASSWORD;
+import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_ID;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.ForOrgAdminsApi;
+import org.sagebionetworks.bridge.rest.api.ForSuperadminsApi;
+import org.sagebionetworks.bridge.rest.api.OrganizationsApi;
+import org.sagebionetworks.bridge.rest.model.Account;
+import org.sagebionetworks.bridge.rest.model.AccountSummaryList;
+import org.sagebionetworks.bridge.rest.model.AccountSummarySearch;
+import org.sagebionetworks.bridge.rest.model.Organization;
+import org.sagebionetworks.bridge.rest.model.SignUp;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Grows one organization to many members, half created in the organization by an org admin (createAccount) and
+ * half created in the app and then added (addMember). At each size we measure getMembers with different filters
+ * and page sizes, including the last page. Finally the added members are removed concurrently to measure
+ * removeMember throughput.
+ */
+@Category(PerformanceTest.class)
+public class OrgMembershipPerformanceTest {
+    private static final Logger LOG = LoggerFactory.getLogger(OrgMembershipPerformanceTest.class);
+
+    private static final int MAX_MEMBERS = Integer.getInteger("perf.org.members", 10000);
+    private static final int CALLS_PER_QUERY = Integer.getInteger("perf.org.calls", 50);
+    private static final int THREAD_COUNT = Integer.getInteger("perf.threads", 20);
+    private static final List<Integer> MEMBER_STEPS = ImmutableList.of(100, 1000, 10000, 50000);
+    private static final List<Integer> PAGE_SIZES = ImmutableList.of(10, 50, 100);
+
+    private TestUser admin;
+    private TestUser orgAdmin;
+    private String orgId;
+    private String emailPrefix;
+    private List<String> createdIds;
+    private List<String> addedIds;
+
+    @Before
+    public void before() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        orgAdmin = TestUserHelper.createAndSignInUser(OrgMembershipPerformanceTest.class, false, ORG_ADMIN);
+        createdIds = new ArrayList<>();
+        addedIds = new ArrayList<>();
+
+        orgId = Tests.randomIdentifier(OrgMembershipPerformanceTest.class);
+        emailPrefix = "bridge-testing+" + orgId;
+        admin.getClient(OrganizationsApi.class).createOrganization(new Organization().identifier(orgId)
+                .name(orgId)).execute();
+        admin.getClient(ForOrgAdminsApi.class).addMember(orgId, orgAdmin.getUserId()).execute();
+    }
+
+    @After
+    public void after() throws Exception {
+        ForAdminsApi adminsApi = admin.getClient(ForAdminsApi.class);
+        TeardownRegistry teardown = new TeardownRegistry(THREAD_COUNT);
+
+        // The organization can't be deleted while it has members.
+        String org = teardown.register("org:" + orgId, () -> admin.getClient(ForSuperadminsApi.class)
+                .deleteOrganization(orgId).execute());
+        teardown.register("user:" + orgAdmin.getUserId(), orgAdmin::signOutAndDeleteUser, org);
+        for (String userId : createdIds) {
+            teardown.register("user:" + userId, () -> adminsApi.deleteUser(userId).execute(), org);
+        }
+        for (String userId : addedIds) {
+            teardown.register("user:" + userId, () -> adminsApi.deleteUser(userId).execute(), org);
+        }
+        teardown.deleteAll();
+    }
+
+    @Test
+    public void membersListAndRemoval() throws Exception {
+        ForOrgAdminsApi orgAdminApi = orgAdmin.getClient(ForOrgAdminsApi.class);
+        ForAdminsApi adminsApi = admin.getClient(ForAdminsApi.class);
+
+        for (int members : MEMBER_STEPS) {
+            if (members > MAX_MEMBERS) {
+                break;
+            }
+            int toCreate = members / 2 - createdIds.size();
+            int createdBase = createdIds.size();
+            LatencyStats create = new LatencyStats("createAccount (org admin)");
+            create.runConcurrently(THREAD_COUNT, toCreate, i -> {
+                Account account = new Account().email(emailPrefix + "-created-" + (createdBase + i)
+                        + "@sagebase.org").roles(ImmutableList.of(DEVELOPER));
+                String userId = orgAdminApi.createAccount(account).execute().body().getIdentifier();
+                synchronized (createdIds) {
+                    createdIds.add(userId);
+                }
+                return userId;
+            });
+
+            int toAdd = members - members / 2 - addedIds.size();
+            int addedBase = addedIds.size();
+            LatencyStats add = new LatencyStats("createUser + addMember");
+            add.runConcurrently(THREAD_COUNT, toAdd, i -> {
+                SignUp signUp = new SignUp().email(emailPrefix + "-added-" + (addedBase + i) + "@sagebase.org")
+                        .password(PASSWORD).appId(TEST_APP_ID);
+                String userId = adminsApi.createUser(signUp).execute().body().getId();
+                synchronized (addedIds) {
+                    addedIds.add(userId);
+                }
+                return orgAdminApi.addMember(orgId, userId).execute();
+            });
+            LOG.info(create.toString());
+            LOG.info(add.toString());
+            assertEquals(0, create.getErrorCount() + add.getErrorCount());
+
+            measure(orgAdminApi, members);
+        }
+
+        LatencyStats remove = new LatencyStats("removeMember");
+        remove.runConcurrently(THREAD_COUNT, addedIds.size(), i -> orgAdminApi.removeMember(orgId,
+                addedIds.get(i)).execute());
+        LOG.info(remove.toString());
+        assertEquals(0, remove.getErrorCount());
+
+        int remaining = orgAdminApi.getMembers(orgId, new AccountSummarySearch().pageSize(1)).execute().body()
+                .getTotal();
+        // The org admin is a member too.
+        assertEquals(createdIds.size() + 1, remaining);
+    }
+
+    private void measure(ForOrgAdminsApi orgAdminApi, int members) throws Exception {
+        Map<String, Supplier<AccountSummarySearch>> queries = new LinkedHashMap<>();
+        for (int pageSize : PAGE_SIZES) {
+            queries.put("no filter, page size " + pageSize, () -> new AccountSummarySearch().pageSize(pageSize));
+        }
+        queries.put("email filter matching half", () -> new AccountSummarySearch().pageSize(50)
+                .emailFilter(emailPrefix + "-added-"));
+        queries.put("email filter matching one", () -> new AccountSummarySearch().pageSize(50)
+                .emailFilter(emailPrefix + "-created-0@"));
+        queries.put("last page", () -> new AccountSummarySearch().pageSize(50)
+                .offsetBy(Math.max(0, members - 50)));
+
+        for (Map.Entry<String, Supplier<AccountSummarySearch>> entry : queries.entrySet()) {
+            LatencyStats stats = new LatencyStats("getMembers (" + members + " members, " + entry.getKey() + ")");
+            stats.runConcurrently(THREAD_COUNT, CALLS_PER_QUERY, i -> {
+                AccountSummaryList list = orgAdminApi.getMembers(orgId, entry.getValue().get()).execute().body();
+                return list.getItems();
+            });
+            LOG.info(stats.toString());
+            assertEquals(0, stats.getErrorCount());
+        }
+    }
+}
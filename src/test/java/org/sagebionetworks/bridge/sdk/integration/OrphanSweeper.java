@@ -0,0 +1,365 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static org.sagebionetworks.bridge.util.IntegTestUtils.SHARED_APP_ID;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.AppConfigsApi;
+import org.sagebionetworks.bridge.rest.api.AssessmentsApi;
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.ForSuperadminsApi;
+import org.sagebionetworks.bridge.rest.api.ParticipantsApi;
+import org.sagebionetworks.bridge.rest.api.SharedModulesApi;
+import org.sagebionetworks.bridge.rest.api.SurveysApi;
+import org.sagebionetworks.bridge.rest.api.UploadSchemasApi;
+import org.sagebionetworks.bridge.rest.exceptions.EntityNotFoundException;
+import org.sagebionetworks.bridge.rest.model.AccountSummary;
+import org.sagebionetworks.bridge.rest.model.AccountSummaryList;
+import org.sagebionetworks.bridge.rest.model.AccountSummarySearch;
+import org.sagebionetworks.bridge.rest.model.AppConfig;
+import org.sagebionetworks.bridge.rest.model.Assessment;
+import org.sagebionetworks.bridge.rest.model.AssessmentList;
+import org.sagebionetworks.bridge.rest.model.MasterSchedulerConfig;
+import org.sagebionetworks.bridge.rest.model.SharedModuleMetadata;
+import org.sagebionetworks.bridge.rest.model.Survey;
+import org.sagebionetworks.bridge.rest.model.UploadSchema;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Finds objects left behind by test runs that never reached their cleanup code, and deletes them. Each resource
+ * type is scanned on its own thread. Deletes go through a worker pool that is rate limited, so a large sweep
+ * doesn't compete with other traffic against the same environment.
+ *
+ * An object is an orphan if its identifier looks like one from Tests.randomIdentifier() (accounts: an email from
+ * IntegTestUtils.makeEmail()) and it was created before the cutoff. Upload schemas, shared modules and scheduler
+ * configs don't carry a creation time, so they are only swept when includeUndated is set; only do that when no
+ * other test run is using the environment.
+ */
+public class OrphanSweeper {
+    private static final Logger LOG = LoggerFactory.getLogger(OrphanSweeper.class);
+
+    /** Identifiers from Tests.randomIdentifier(), which may have a suffix appended. */
+    static final Pattern TEST_IDENTIFIER = Pattern.compile("sdk-[a-z0-9]+-[a-z]{5}");
+    /** Emails from IntegTestUtils.makeEmail() and the test classes that build their own. */
+    static final Pattern TEST_EMAIL = Pattern.compile("bridge-testing\\+[^@]+-[^@]+@sagebase\\.org",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final String EMAIL_FILTER = "bridge-testing+";
+    private static final int PAGE_SIZE = 100;
+
+    static final String ACCOUNTS = "accounts";
+    static final String SURVEYS = "surveys";
+    static final String UPLOAD_SCHEMAS = "upload schemas";
+    static final String ASSESSMENTS = "assessments";
+    static final String SHARED_MODULES = "shared modules";
+    static final String APP_CONFIGS = "app configs";
+    static final String SCHEDULER_CONFIGS = "scheduler configs";
+
+    @FunctionalInterface
+    private interface Scanner {
+        void scan(List<Orphan> orphans) throws Exception;
+    }
+
+    private static final class Orphan {
+        private final String type;
+        private final String id;
+        private final TeardownRegistry.Deleter deleter;
+
+        private Orphan(String type, String id, TeardownRegistry.Deleter deleter) {
+            this.type = type;
+            this.id = id;
+            this.deleter = deleter;
+        }
+    }
+
+    /** Counts for one resource type. */
+    public static final class TypeReport {
+        private final AtomicInteger scanned = new AtomicInteger();
+        private final AtomicInteger orphaned = new AtomicInteger();
+        private final AtomicInteger deleted = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private volatile String scanError;
+
+        public int getScanned() {
+            return scanned.get();
+        }
+
+        public int getOrphaned() {
+            return orphaned.get();
+        }
+
+        public int getDeleted() {
+            return deleted.get();
+        }
+
+        public int getFailed() {
+            return failed.get();
+        }
+
+        /** The reason the scan of this type stopped early, or null if it completed. */
+        public String getScanError() {
+            return scanError;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d scanned, %d orphaned, %d deleted, %d failed%s", getScanned(), getOrphaned(),
+                    getDeleted(), getFailed(), (scanError == null) ? "" : ", scan stopped: " + scanError);
+        }
+    }
+
+    private final TestUser admin;
+    private final DateTime cutoff;
+    private final boolean includeUndated;
+    private final int threadCount;
+    private final RateLimiter rateLimiter;
+    private final Map<String, TypeReport> report = new LinkedHashMap<>();
+
+    /**
+     * @param admin a superadmin signed in to the app to sweep
+     * @param minAgeMillis only objects created at least this long ago are deleted
+     * @param includeUndated also sweep types that have no creation time
+     * @param threadCount the number of concurrent deletes
+     * @param deletesPerSecond the maximum rate of deletes across all threads
+     */
+    public OrphanSweeper(TestUser admin, long minAgeMillis, boolean includeUndated, int threadCount,
+            double deletesPerSecond) {
+        checkNotNull(admin);
+        checkArgument(minAgeMillis >= 0, "minAgeMillis cannot be negative");
+        checkArgument(threadCount > 0, "threadCount must be positive");
+        checkArgument(deletesPerSecond > 0, "deletesPerSecond must be positive");
+        this.admin = admin;
+        this.cutoff = DateTime.now().minus(minAgeMillis);
+        this.includeUndated = includeUndated;
+        this.threadCount = threadCount;
+        this.rateLimiter = RateLimiter.create(deletesPerSecond);
+    }
+
+    /** Scan every resource type and delete the orphans. Returns the counts for each type. */
+    public synchronized Map<String, TypeReport> sweep() throws InterruptedException {
+        report.clear();
+        Map<String, Scanner> scanners = new LinkedHashMap<>();
+        scanners.put(ACCOUNTS, this::scanAccounts);
+        scanners.put(SURVEYS, this::scanSurveys);
+        scanners.put(ASSESSMENTS, this::scanAssessments);
+        scanners.put(APP_CONFIGS, this::scanAppConfigs);
+        if (includeUndated) {
+            scanners.put(UPLOAD_SCHEMAS, this::scanUploadSchemas);
+            scanners.put(SHARED_MODULES, this::scanSharedModules);
+            scanners.put(SCHEDULER_CONFIGS, this::scanSchedulerConfigs);
+        }
+
+        ExecutorService scanExecutor = Executors.newFixedThreadPool(scanners.size());
+        ExecutorService deleteExecutor = Executors.newFixedThreadPool(threadCount);
+        List<Future<?>> scans = new ArrayList<>();
+        try {
+            for (Map.Entry<String, Scanner> entry : scanners.entrySet()) {
+                TypeReport typeReport = new TypeReport();
+                report.put(entry.getKey(), typeReport);
+                scans.add(scanExecutor.submit(() -> {
+                    // A type's orphans are only deleted once its scan is done, so deletes don't shift the pages
+                    // still being read.
+                    List<Orphan> orphans = new ArrayList<>();
+                    try {
+                        entry.getValue().scan(orphans);
+                    } catch (Exception e) {
+                        typeReport.scanError = e.getMessage();
+                        LOG.error("Error scanning " + entry.getKey() + ": " + e.getMessage(), e);
+                    }
+                    for (Orphan orphan : orphans) {
+                        deleteExecutor.execute(() -> delete(orphan));
+                    }
+                }));
+            }
+            for (Future<?> scan : scans) {
+                try {
+                    scan.get();
+                } catch (ExecutionException e) {
+                    LOG.error("Error scanning: " + e.getMessage(), e);
+                }
+            }
+        } finally {
+            scanExecutor.shutdown();
+            deleteExecutor.shutdown();
+            deleteExecutor.awaitTermination(1, HOURS);
+        }
+        for (Map.Entry<String, TypeReport> entry : report.entrySet()) {
+            LOG.info("Orphan sweep, {}: {}", entry.getKey(), entry.getValue());
+        }
+        return new LinkedHashMap<>(report);
+    }
+
+    private void delete(Orphan orphan) {
+        TypeReport typeReport = report.get(orphan.type);
+        rateLimiter.acquire();
+        try {
+            orphan.deleter.delete();
+            typeReport.deleted.incrementAndGet();
+        } catch (EntityNotFoundException e) {
+            typeReport.deleted.incrementAndGet();
+        } catch (Exception e) {
+            typeReport.failed.incrementAndGet();
+            LOG.warn("Could not delete " + orphan.type + " " + orphan.id + ": " + e.getMessage());
+        }
+    }
+
+    private void add(List<Orphan> orphans, String type, String id, TeardownRegistry.Deleter deleter) {
+        report.get(type).orphaned.incrementAndGet();
+        orphans.add(new Orphan(type, id, deleter));
+    }
+
+    private boolean isTestIdentifier(String identifier) {
+        return identifier != null && TEST_IDENTIFIER.matcher(identifier).lookingAt();
+    }
+
+    private boolean isOld(DateTime createdOn) {
+        return createdOn != null && createdOn.isBefore(cutoff);
+    }
+
+    private void scanAccounts(List<Orphan> orphans) throws Exception {
+        ParticipantsApi participantsApi = admin.getClient(ParticipantsApi.class);
+        ForAdminsApi adminsApi = admin.getClient(ForAdminsApi.class);
+        TypeReport typeReport = report.get(ACCOUNTS);
+
+        AccountSummarySearch search = new AccountSummarySearch().emailFilter(EMAIL_FILTER).endTime(cutoff)
+                .pageSize(PAGE_SIZE);
+        int offset = 0;
+        while (true) {
+            AccountSummaryList list = participantsApi.searchAccountSummaries(search.offsetBy(offset))
+                    .execute().body();
+            for (AccountSummary summary : list.getItems()) {
+                typeReport.scanned.incrementAndGet();
+                if (summary.getEmail() != null && TEST_EMAIL.matcher(summary.getEmail()).matches()
+                        && isOld(summary.getCreatedOn()) && !summary.getId().equals(admin.getUserId())) {
+                    String userId = summary.getId();
+                    add(orphans, ACCOUNTS, summary.getEmail(), () -> adminsApi.deleteUser(userId).execute());
+                }
+            }
+            offset += list.getItems().size();
+            if (list.getItems().isEmpty() || offset >= list.getTotal()) {
+                break;
+            }
+        }
+    }
+
+    private void scanSurveys(List<Orphan> orphans) throws Exception {
+        SurveysApi surveysApi = admin.getClient(SurveysApi.class);
+        TypeReport typeReport = report.get(SURVEYS);
+
+        for (Survey survey : surveysApi.getMostRecentSurveys(true).execute().body().getItems()) {
+            typeReport.scanned.incrementAndGet();
+            if (isTestIdentifier(survey.getIdentifier()) && isOld(survey.getCreatedOn())) {
+                String guid = survey.getGuid();
+                add(orphans, SURVEYS, survey.getIdentifier(), () -> {
+                    for (Survey version : surveysApi.getAllVersionsOfSurvey(guid, true).execute().body()
+                            .getItems()) {
+                        surveysApi.deleteSurvey(guid, version.getCreatedOn(), true).execute();
+                    }
+                });
+            }
+        }
+    }
+
+    private void scanAssessments(List<Orphan> orphans) throws Exception {
+        AssessmentsApi assessmentsApi = admin.getClient(AssessmentsApi.class);
+        TypeReport typeReport = report.get(ASSESSMENTS);
+
+        int offset = 0;
+        while (true) {
+            AssessmentList list = assessmentsApi.getAssessments(offset, PAGE_SIZE, null, true).execute().body();
+            for (Assessment assessment : list.getItems()) {
+                typeReport.scanned.incrementAndGet();
+                if (isTestIdentifier(assessment.getIdentifier()) && isOld(assessment.getCreatedOn())) {
+                    String identifier = assessment.getIdentifier();
+                    add(orphans, ASSESSMENTS, identifier, () -> {
+                        for (Assessment revision : assessmentsApi.getAssessmentRevisionsById(identifier, null,
+                                null, true).execute().body().getItems()) {
+                            assessmentsApi.deleteAssessment(revision.getGuid(), true).execute();
+                        }
+                    });
+                }
+            }
+            offset += list.getItems().size();
+            if (list.getItems().isEmpty() || offset >= list.getTotal()) {
+                break;
+            }
+        }
+    }
+
+    private void scanAppConfigs(List<Orphan> orphans) throws Exception {
+        ForAdminsApi adminsApi = admin.getClient(ForAdminsApi.class);
+        TypeReport typeReport = report.get(APP_CONFIGS);
+
+        for (AppConfig config : admin.getClient(AppConfigsApi.class).getAppConfigs(true).execute().body()
+                .getItems()) {
+            typeReport.scanned.incrementAndGet();
+            if (isTestIdentifier(config.getLabel()) && isOld(config.getCreatedOn())) {
+                String guid = config.getGuid();
+                add(orphans, APP_CONFIGS, config.getLabel(), () -> adminsApi.deleteAppConfig(guid, true).execute());
+            }
+        }
+    }
+
+    private void scanUploadSchemas(List<Orphan> orphans) throws Exception {
+        ForAdminsApi adminsApi = admin.getClient(ForAdminsApi.class);
+        TypeReport typeReport = report.get(UPLOAD_SCHEMAS);
+
+        for (UploadSchema schema : admin.getClient(UploadSchemasApi.class).getMostRecentUploadSchemas(true)
+                .execute().body().getItems()) {
+            typeReport.scanned.incrementAndGet();
+            if (isTestIdentifier(schema.getSchemaId())) {
+                String schemaId = schema.getSchemaId();
+                add(orphans, UPLOAD_SCHEMAS, schemaId,
+                        () -> adminsApi.deleteAllRevisionsOfUploadSchema(schemaId, true).execute());
+            }
+        }
+    }
+
+    private void scanSharedModules(List<Orphan> orphans) throws Exception {
+        // Shared modules live in the shared app.
+        ForAdminsApi sharedAdminsApi = AdminSessionPool.getClient(SHARED_APP_ID, ForAdminsApi.class);
+        SharedModulesApi sharedModulesApi = AdminSessionPool.getClient(SHARED_APP_ID, SharedModulesApi.class);
+        TypeReport typeReport = report.get(SHARED_MODULES);
+
+        for (SharedModuleMetadata metadata : sharedModulesApi.queryAllMetadata(true, false, null, null, null, true)
+                .execute().body().getItems()) {
+            typeReport.scanned.incrementAndGet();
+            if (isTestIdentifier(metadata.getId())) {
+                String moduleId = metadata.getId();
+                add(orphans, SHARED_MODULES, moduleId,
+                        () -> sharedAdminsApi.deleteMetadataByIdAllVersions(moduleId, true).execute());
+            }
+        }
+    }
+
+    private void scanSchedulerConfigs(List<Orphan> orphans) throws Exception {
+        ForSuperadminsApi superadminApi = admin.getClient(ForSuperadminsApi.class);
+        TypeReport typeReport = report.get(SCHEDULER_CONFIGS);
+
+        for (MasterSchedulerConfig config : superadminApi.getAllSchedulerConfigs().execute().body().getItems()) {
+            typeReport.scanned.incrementAndGet();
+            if (isTestIdentifier(config.getScheduleId())) {
+                String scheduleId = config.getScheduleId();
+                add(orphans, SCHEDULER_CONFIGS, scheduleId,
+                        () -> superadminApi.deleteSchedulerConfig(scheduleId).execute());
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import org.sagebionetworks.bridge.user.TestUserHelper;
+
+/**
+ * Runs the orphan sweep against the test environment. This deletes data, so it only runs when asked for:
+ *
+ * mvn test -Dtest=OrphanSweeperTest -Dsweep.orphans=true
+ *
+ * Add -Dsweep.includeUndated=true to also sweep upload schemas, shared modules and scheduler configs, but only
+ * when no other test run is using the environment.
+ */
+public class OrphanSweeperTest {
+    private static final long MIN_AGE_MILLIS = HOURS.toMillis(Long.getLong("sweep.minAgeHours", 24L));
+    private static final int THREAD_COUNT = Integer.getInteger("sweep.threads", 8);
+    private static final double DELETES_PER_SECOND = Double.parseDouble(
+            System.getProperty("sweep.deletesPerSecond", "10"));
+
+    @Test
+    public void identifierPatterns() {
+        assertTrue(OrphanSweeper.TEST_IDENTIFIER.matcher(Tests.randomIdentifier(OrphanSweeperTest.class))
+                .lookingAt());
+        assertTrue(OrphanSweeper.TEST_IDENTIFIER.matcher(Tests.randomIdentifier(CRCTest.class) + "-2")
+                .lookingAt());
+        assertFalse(OrphanSweeper.TEST_IDENTIFIER.matcher("health-data-integ-test-schema").lookingAt());
+
+        assertTrue(OrphanSweeper.TEST_EMAIL.matcher(
+                "bridge-testing+AccountSummarySearchTest-abcd-test@sagebase.org").matches());
+        assertFalse(OrphanSweeper.TEST_EMAIL.matcher("bridge-testing+admin@sagebase.org").matches());
+    }
+
+    @Test
+    public void sweep() throws Exception {
+        Assume.assumeTrue("Set -Dsweep.orphans=true to delete orphaned test objects",
+                Boolean.getBoolean("sweep.orphans"));
+
+        OrphanSweeper sweeper = new OrphanSweeper(TestUserHelper.getSignedInAdmin(), MIN_AGE_MILLIS,
+                Boolean.getBoolean("sweep.includeUndated"), THREAD_COUNT, DELETES_PER_SECOND);
+        Map<String, OrphanSweeper.TypeReport> report = sweeper.sweep();
+
+        for (Map.Entry<String, OrphanSweeper.TypeReport> entry : report.entrySet()) {
+            assertNull(entry.getKey() + " scan failed", entry.getValue().getScanError());
+        }
+    }
+}
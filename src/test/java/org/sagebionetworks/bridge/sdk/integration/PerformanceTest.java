@@ -0,0 +1,9 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+/**
+ * Category for load and scale harnesses. These create large numbers of objects and run for a long time,
+ * so they are excluded from the default build and only run with -DjunitCategory=performanceTests.
+ */
+public interface PerformanceTest {
+
+}
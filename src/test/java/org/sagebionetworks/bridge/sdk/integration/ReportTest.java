@@ -103,18 +103,21 @@ public class ReportTest {
     @After
     public void after() throws Exception {
         ForDevelopersApi developerApi = developer.getClient(ForDevelopersApi.class);
-        developerApi.deleteAllStudyReportRecords(reportId).execute();
-
-        admin.getClient(ForAdminsApi.class).deleteParticipantReportIndex(reportId).execute();
-        
-        if (user != null) {
-            developerApi.deleteAllParticipantReportRecords(user.getUserId(), reportId).execute();
-            user.signOutAndDeleteUser();
-        }
-        if (studyScopedUser != null) {
-            developerApi.deleteAllParticipantReportRecords(studyScopedUser.getUserId(), reportId).execute();
-            studyScopedUser.signOutAndDeleteUser();
+        TeardownRegistry teardown = new TeardownRegistry();
+
+        // Records are deleted before the index and the users they belong to.
+        String index = teardown.register("participantReportIndex:" + reportId,
+                () -> admin.getClient(ForAdminsApi.class).deleteParticipantReportIndex(reportId).execute());
+        teardown.register("studyReport:" + reportId,
+                () -> developerApi.deleteAllStudyReportRecords(reportId).execute());
+        for (TestUser oneUser : new TestUser[] { user, studyScopedUser }) {
+            if (oneUser != null) {
+                String userKey = teardown.register("user:" + oneUser.getUserId(), oneUser::signOutAndDeleteUser);
+                teardown.register("participantReport:" + oneUser.getUserId(), () -> developerApi
+                        .deleteAllParticipantReportRecords(oneUser.getUserId(), reportId).execute(), index, userKey);
+            }
         }
+        teardown.deleteAll();
     }
     
     @AfterClass
@@ -7,8 +7,6 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.sagebionetworks.bridge.rest.model.Role.DEVELOPER;
-import static org.sagebionetworks.bridge.sdk.integration.Tests.API_SIGNIN;
-import static org.sagebionetworks.bridge.sdk.integration.Tests.SHARED_SIGNIN;
 import static org.sagebionetworks.bridge.sdk.integration.UploadSchemaTest.makeSimpleSchema;
 import static org.sagebionetworks.bridge.util.IntegTestUtils.SHARED_APP_ID;
 import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_ID;
@@ -29,7 +27,6 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
-import org.sagebionetworks.bridge.rest.api.ForSuperadminsApi;
 import org.sagebionetworks.bridge.rest.api.SharedModulesApi;
 import org.sagebionetworks.bridge.rest.api.SurveysApi;
 import org.sagebionetworks.bridge.rest.api.UploadSchemasApi;
@@ -65,9 +62,9 @@ public class SharedModuleMetadataTest {
     private static SharedModulesApi nonAuthSharedModulesApi;
     private static UploadSchemasApi devUploadSchemasApi;
     private static SurveysApi devSurveysApi;
-    private static ForSuperadminsApi superadminsApi;
     private static ForAdminsApi adminsApi;
-    private static SurveysApi adminSurveysApi;
+    private static ForAdminsApi sharedAdminsApi;
+    private static SurveysApi sharedAdminSurveysApi;
     
     private String moduleId;
     private String schemaId;
@@ -88,9 +85,8 @@ public class SharedModuleMetadataTest {
         devUploadSchemasApi = sharedDeveloper.getClient(UploadSchemasApi.class);
         devSurveysApi = sharedDeveloper.getClient(SurveysApi.class);
         adminsApi = admin.getClient(ForAdminsApi.class);
-        superadminsApi = admin.getClient(ForSuperadminsApi.class);
-        superadminsApi.adminChangeApp(Tests.SHARED_SIGNIN).execute();
-        adminSurveysApi = admin.getClient(SurveysApi.class);
+        sharedAdminsApi = AdminSessionPool.getClient(SHARED_APP_ID, ForAdminsApi.class);
+        sharedAdminSurveysApi = AdminSessionPool.getClient(SHARED_APP_ID, SurveysApi.class);
     }
 
     @Before
@@ -108,26 +104,18 @@ public class SharedModuleMetadataTest {
         // modify member var to fit with real survey info
         surveyGuid = retSurvey.getGuid();
         surveyCreatedOn = retSurvey.getCreatedOn();
-
-        // Ensure all tests are consistent by having the admin start in the API app.
-        superadminsApi.adminChangeApp(API_SIGNIN).execute();
     }
 
     @After
     public void after() throws Exception {
-        superadminsApi.adminChangeApp(SHARED_SIGNIN).execute();
         try {
-            adminsApi.deleteMetadataByIdAllVersions(moduleId, true).execute();
+            sharedAdminsApi.deleteMetadataByIdAllVersions(moduleId, true).execute();
         } catch (EntityNotFoundException ex) {
             // Suppress the exception, as the test may have already deleted the module.
         }
         // also delete created upload schema
-        try {
-            adminsApi.deleteAllRevisionsOfUploadSchema(schemaId, true).execute();
-            adminSurveysApi.deleteSurvey(surveyGuid, surveyCreatedOn, true).execute();
-        } finally {
-            superadminsApi.adminChangeApp(API_SIGNIN).execute();
-        }
+        sharedAdminsApi.deleteAllRevisionsOfUploadSchema(schemaId, true).execute();
+        sharedAdminSurveysApi.deleteSurvey(surveyGuid, surveyCreatedOn, true).execute();
     }
     
     @AfterClass
@@ -268,20 +256,19 @@ public class SharedModuleMetadataTest {
         assertEquals(updatedMetadataV6, gettedByIdAndVersionV6);
 
         // Delete v2. Latest is still v6.
-        superadminsApi.adminChangeApp(SHARED_SIGNIN).execute();
-        adminsApi.deleteMetadataByIdAndVersion(moduleId, 2, true).execute();
+        sharedAdminsApi.deleteMetadataByIdAndVersion(moduleId, 2, true).execute();
         SharedModuleMetadata gettedLatestAfterDeleteV2 = sharedDeveloperModulesApi.getMetadataByIdLatestVersion(
                 moduleId).execute().body();
         assertEquals(updatedMetadataV6, gettedLatestAfterDeleteV2);
 
         // Delete v6. Latest is now v4.
-        adminsApi.deleteMetadataByIdAndVersion(moduleId, 6, true).execute();
+        sharedAdminsApi.deleteMetadataByIdAndVersion(moduleId, 6, true).execute();
         SharedModuleMetadata gettedLatestAfterDeleteV6 = sharedDeveloperModulesApi.getMetadataByIdLatestVersion(
                 moduleId).execute().body();
         assertEquals(metadataV4, gettedLatestAfterDeleteV6);
 
         // Delete all. Query by ID now returns an empty list.
-        adminsApi.deleteMetadataByIdAllVersions(moduleId, true).execute();
+        sharedAdminsApi.deleteMetadataByIdAllVersions(moduleId, true).execute();
         List<SharedModuleMetadata> metadataListAfterDeleteAll = sharedDeveloperModulesApi
                 .queryMetadataById(moduleId, false, false, null, null, null, true).execute().body().getItems();
         assertEquals(0, metadataListAfterDeleteAll.size());
@@ -491,23 +478,21 @@ public class SharedModuleMetadataTest {
             assertFalse(moduleMetadataListContains(case13MetadataList, moduleBV2));
             
             // Verify physical delete
-            superadminsApi.adminChangeApp(SHARED_SIGNIN).execute();
-            adminsApi.deleteMetadataByIdAndVersion(moduleAV1.getId(), moduleAV1.getVersion(), true).execute();
+            sharedAdminsApi.deleteMetadataByIdAndVersion(moduleAV1.getId(), moduleAV1.getVersion(), true).execute();
             try {
                 sharedDeveloperModulesApi.getMetadataByIdAndVersion(moduleAV1.getId(), moduleAV1.getVersion()).execute();
                 fail("Should have thrown exception");
             } catch(EntityNotFoundException e) {
             }
         } finally {
-            superadminsApi.adminChangeApp(SHARED_SIGNIN).execute();
             try {
-                adminsApi.deleteMetadataByIdAllVersions(moduleId + "A", true).execute();
+                sharedAdminsApi.deleteMetadataByIdAllVersions(moduleId + "A", true).execute();
             } catch (BridgeSDKException ex) {
                 LOG.error("Error deleting module " + moduleId + "A: " + ex.getMessage(), ex);
             }
 
             try {
-                adminsApi.deleteMetadataByIdAllVersions(moduleId + "B", true).execute();
+                sharedAdminsApi.deleteMetadataByIdAllVersions(moduleId + "B", true).execute();
             } catch (BridgeSDKException ex) {
                 LOG.error("Error deleting module " + moduleId + "B: " + ex.getMessage(), ex);
             }
@@ -587,8 +572,7 @@ public class SharedModuleMetadataTest {
             assertTrue(case4MetadataList.contains(moduleV3));
         } finally {
             try {
-                superadminsApi.adminChangeApp(SHARED_SIGNIN).execute();
-                adminsApi.deleteMetadataByIdAllVersions(moduleId + "other", true).execute();
+                sharedAdminsApi.deleteMetadataByIdAllVersions(moduleId + "other", true).execute();
             } catch (BridgeSDKException ex) {
                 LOG.error("Error deleting module " + moduleId + "other: " + ex.getMessage(), ex);
             }
@@ -597,14 +581,12 @@ public class SharedModuleMetadataTest {
 
     @Test(expected = EntityNotFoundException.class)
     public void deleteByIdAllVersions404() throws Exception {
-        superadminsApi.adminChangeApp(SHARED_SIGNIN).execute();
-        adminsApi.deleteMetadataByIdAllVersions(moduleId, true).execute();
+        sharedAdminsApi.deleteMetadataByIdAllVersions(moduleId, true).execute();
     }
 
     @Test(expected = EntityNotFoundException.class)
     public void deleteByIdAndVersion404() throws Exception {
-        superadminsApi.adminChangeApp(SHARED_SIGNIN).execute();
-        adminsApi.deleteMetadataByIdAndVersion(moduleId, 1, true).execute();
+        sharedAdminsApi.deleteMetadataByIdAndVersion(moduleId, 1, true).execute();
     }
 
     @Test(expected = EntityNotFoundException.class)
@@ -687,9 +669,8 @@ public class SharedModuleMetadataTest {
             assertEquals(2, list.getItems().size());
 
         } finally {
-            superadminsApi.adminChangeApp(SHARED_SIGNIN).execute();
-            adminsApi.deleteMetadataByIdAllVersions(moduleId + "A", true).execute();
-            adminsApi.deleteMetadataByIdAllVersions(moduleId + "B", true).execute();
+            sharedAdminsApi.deleteMetadataByIdAllVersions(moduleId + "A", true).execute();
+            sharedAdminsApi.deleteMetadataByIdAllVersions(moduleId + "B", true).execute();
         }
     }
 }
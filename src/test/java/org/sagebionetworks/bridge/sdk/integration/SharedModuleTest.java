@@ -4,8 +4,6 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.sagebionetworks.bridge.rest.model.Role.DEVELOPER;
-import static org.sagebionetworks.bridge.sdk.integration.Tests.API_SIGNIN;
-import static org.sagebionetworks.bridge.sdk.integration.Tests.SHARED_SIGNIN;
 import static org.sagebionetworks.bridge.util.IntegTestUtils.SHARED_APP_ID;
 
 import org.apache.commons.lang3.RandomStringUtils;
@@ -15,15 +13,11 @@ import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
-import org.sagebionetworks.bridge.rest.api.ForSuperadminsApi;
 import org.sagebionetworks.bridge.rest.api.SharedModulesApi;
 import org.sagebionetworks.bridge.rest.api.SurveysApi;
 import org.sagebionetworks.bridge.rest.api.UploadSchemasApi;
 import org.sagebionetworks.bridge.rest.exceptions.BadRequestException;
-import org.sagebionetworks.bridge.rest.exceptions.BridgeSDKException;
 import org.sagebionetworks.bridge.rest.model.GuidCreatedOnVersionHolder;
 import org.sagebionetworks.bridge.rest.model.SharedModuleImportStatus;
 import org.sagebionetworks.bridge.rest.model.SharedModuleMetadata;
@@ -37,8 +31,6 @@ import org.sagebionetworks.bridge.rest.model.UploadSchemaType;
 import org.sagebionetworks.bridge.user.TestUserHelper;
 
 public class SharedModuleTest {
-    private static final Logger LOG = LoggerFactory.getLogger(SharedModuleTest.class);
-
     private static TestUserHelper.TestUser admin;
     private static TestUserHelper.TestUser apiDeveloper;
     private static TestUserHelper.TestUser sharedDeveloper;
@@ -78,62 +70,35 @@ public class SharedModuleTest {
 
     @After
     public void deleteTestObjects() throws Exception {
-        // Delete schemas created by test. We do it in a single After method instead of multiple, in case there are any
-        // referential integrity concerns.
+        // Delete objects created by test. We do it in a single After method instead of multiple, because the module
+        // references its shared schema or survey, so it is deleted first.
         ForAdminsApi adminApi = admin.getClient(ForAdminsApi.class);
-        ForSuperadminsApi superadminApi = admin.getClient(ForSuperadminsApi.class);
+        ForAdminsApi sharedAdminApi = AdminSessionPool.getClient(SHARED_APP_ID, ForAdminsApi.class);
+        TeardownRegistry teardown = new TeardownRegistry();
 
+        String schema = null;
+        if (sharedSchema != null) {
+            schema = teardown.register("sharedSchema:" + sharedSchema.getSchemaId(), () -> sharedAdminApi
+                    .deleteAllRevisionsOfUploadSchema(sharedSchema.getSchemaId(), true).execute());
+        }
+        String survey = null;
+        if (sharedSurvey != null) {
+            survey = teardown.register("sharedSurvey:" + sharedSurvey.getGuid(), () -> sharedAdminApi
+                    .deleteSurvey(sharedSurvey.getGuid(), sharedSurvey.getCreatedOn(), true).execute());
+        }
         if (module != null) {
-            try {
-                superadminApi.adminChangeApp(SHARED_SIGNIN).execute();
-                adminApi.deleteMetadataByIdAllVersions(module.getId(), true).execute();
-            } catch (BridgeSDKException ex) {
-                LOG.error("Error deleting module " + module.getId() + ": "  + ex.getMessage(), ex);
-            } finally {
-                superadminApi.adminChangeApp(API_SIGNIN).execute();
-            }
+            teardown.register("module:" + module.getId(), () -> sharedAdminApi
+                    .deleteMetadataByIdAllVersions(module.getId(), true).execute(), schema, survey);
         }
-
         if (localSchema != null) {
-            try {
-                adminApi.deleteAllRevisionsOfUploadSchema(localSchema.getSchemaId(), true)
-                        .execute();
-            } catch (BridgeSDKException ex) {
-                LOG.error("Error deleting schema " + localSchema.getSchemaId() + " in app " +
-                        apiDeveloper.getAppId() + ": "  + ex.getMessage(), ex);
-            }
+            teardown.register("localSchema:" + localSchema.getSchemaId(), () -> adminApi
+                    .deleteAllRevisionsOfUploadSchema(localSchema.getSchemaId(), true).execute());
         }
-
-        if (sharedSchema != null) {
-            try {
-                superadminApi.adminChangeApp(SHARED_SIGNIN).execute();
-                adminApi.deleteAllRevisionsOfUploadSchema(sharedSchema.getSchemaId(), true).execute();
-            } catch (BridgeSDKException ex) {
-                LOG.error("Error deleting schema " + sharedSchema.getSchemaId() + " in app " +
-                        sharedDeveloper.getAppId() + ": "  + ex.getMessage(), ex);
-            } finally {
-                superadminApi.adminChangeApp(API_SIGNIN).execute();
-            }
-        }
-
         if (localSurvey != null) {
-            try {
-                adminApi.deleteSurvey(localSurvey.getGuid(), localSurvey.getCreatedOn(), true).execute();
-            } catch (BridgeSDKException ex) {
-                LOG.error("Error deleting local survey " + sharedSurvey.getGuid() + ": "  + ex.getMessage(), ex);
-            }
-        }
-
-        if (sharedSurvey != null) {
-            try {
-                superadminApi.adminChangeApp(SHARED_SIGNIN).execute();
-                adminApi.deleteSurvey(sharedSurvey.getGuid(), sharedSurvey.getCreatedOn(), true).execute();
-            } catch (BridgeSDKException ex) {
-                LOG.error("Error deleting shared survey " + sharedSurvey.getGuid() + ": "  + ex.getMessage(), ex);
-            } finally {
-                superadminApi.adminChangeApp(API_SIGNIN).execute();
-            }
+            teardown.register("localSurvey:" + localSurvey.getGuid(), () -> adminApi
+                    .deleteSurvey(localSurvey.getGuid(), localSurvey.getCreatedOn(), true).execute());
         }
+        teardown.deleteAll();
     }
 
     @Test
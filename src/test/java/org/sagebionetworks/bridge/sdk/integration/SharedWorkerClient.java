@@ -0,0 +1,133 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.ClientManager;
+import org.sagebionetworks.bridge.rest.api.AuthenticationApi;
+import org.sagebionetworks.bridge.rest.model.ClientInfo;
+import org.sagebionetworks.bridge.rest.model.SignIn;
+import org.sagebionetworks.bridge.rest.model.UserSessionInfo;
+
+/**
+ * One worker session shared by every thread in a process, instead of a ClientManager (and a sign-in, and a
+ * connection pool) per thread. API clients are created once and handed out without locking.
+ *
+ * An account only has one session on the server; signing in again invalidates the previous session. So the
+ * session is kept alive by reauthenticating on a timer, which returns the same session token while the session
+ * exists. Calls in flight are never interrupted by a refresh. This requires reauthentication to be enabled for
+ * the app. If a refresh fails, the ClientManager still signs in again on its own when the server rejects the
+ * session.
+ */
+public class SharedWorkerClient implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(SharedWorkerClient.class);
+
+    private final SignIn signIn;
+    private final ClientManager manager;
+    private final Map<Class<?>, Object> clients = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refresher;
+    private final AtomicInteger refreshCount = new AtomicInteger();
+    private final AtomicInteger refreshFailureCount = new AtomicInteger();
+    private final AtomicLong clientCreationCount = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile String reauthToken;
+
+    public SharedWorkerClient(SignIn signIn, ClientInfo clientInfo, long refreshIntervalMillis) throws IOException {
+        checkNotNull(signIn);
+        checkArgument(refreshIntervalMillis > 0, "refreshIntervalMillis must be positive");
+        this.signIn = signIn;
+
+        ClientManager.Builder builder = new ClientManager.Builder().withSignIn(signIn);
+        if (clientInfo != null) {
+            builder.withClientInfo(clientInfo);
+        }
+        this.manager = builder.build();
+        UserSessionInfo session = getClient(AuthenticationApi.class).signInV4(signIn).execute().body();
+        this.reauthToken = session.getReauthToken();
+
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "worker-session-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refresh, refreshIntervalMillis, refreshIntervalMillis,
+                MILLISECONDS);
+    }
+
+    /** An API client bound to the shared session. Safe to call from any thread; never blocks on a refresh. */
+    public <T> T getClient(Class<T> service) {
+        Object client = clients.get(service);
+        if (client == null) {
+            // Not computeIfAbsent: creating a client is cheap, and this never holds a lock on the map.
+            clientCreationCount.incrementAndGet();
+            client = manager.getClient(service);
+            Object existing = clients.putIfAbsent(service, client);
+            if (existing != null) {
+                client = existing;
+            }
+        }
+        return service.cast(client);
+    }
+
+    /**
+     * Make one call with a client on the shared session, tracking how many calls are running at once.
+     */
+    public <T, R> R call(Class<T> service, ThrowingFunction<T, R> call) throws Exception {
+        int running = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(running, Math::max);
+        try {
+            return call.apply(getClient(service));
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    void refresh() {
+        try {
+            SignIn reauth = new SignIn().appId(signIn.getAppId()).email(signIn.getEmail())
+                    .phone(signIn.getPhone()).reauthToken(reauthToken);
+            UserSessionInfo session = getClient(AuthenticationApi.class).reauthenticate(reauth).execute().body();
+            reauthToken = session.getReauthToken();
+            refreshCount.incrementAndGet();
+        } catch (Exception e) {
+            refreshFailureCount.incrementAndGet();
+            LOG.warn("Could not refresh worker session: " + e.getMessage(), e);
+        }
+    }
+
+    public int getRefreshCount() {
+        return refreshCount.get();
+    }
+
+    public int getRefreshFailureCount() {
+        return refreshFailureCount.get();
+    }
+
+    /** API clients created. Concurrent first requests for one service may each create one. */
+    public long getClientCreationCount() {
+        return clientCreationCount.get();
+    }
+
+    /** The most calls made through call() that were running at the same time. */
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+}
@@ -0,0 +1,96 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_ID;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.ClientManager;
+import org.sagebionetworks.bridge.rest.api.ForSuperadminsApi;
+import org.sagebionetworks.bridge.rest.api.ForWorkersApi;
+import org.sagebionetworks.bridge.rest.model.App;
+import org.sagebionetworks.bridge.rest.model.Role;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Compares a worker fleet where every task builds its own ClientManager (and signs in) against the same tasks
+ * sharing one SharedWorkerClient, with the shared session refreshed several times during the run. Since each
+ * sign-in invalidates the account's previous session, the per-task fleet also shows the re-sign-in churn that
+ * comes from many clients sharing one set of credentials.
+ */
+@Category(PerformanceTest.class)
+public class SharedWorkerClientTest {
+    private static final Logger LOG = LoggerFactory.getLogger(SharedWorkerClientTest.class);
+
+    private static final int CALL_COUNT = Integer.getInteger("perf.worker.calls", 1000);
+    private static final int THREAD_COUNT = Integer.getInteger("perf.threads", 20);
+    private static final long REFRESH_INTERVAL_MILLIS = Long.getLong("perf.worker.refreshMillis", 2000L);
+
+    private TestUser worker;
+
+    @BeforeClass
+    public static void turnOnReauthentication() throws Exception {
+        setReauthenticationEnabled(true);
+    }
+
+    @AfterClass
+    public static void turnOffReauthentication() throws Exception {
+        setReauthenticationEnabled(false);
+    }
+
+    private static void setReauthenticationEnabled(boolean enabled) throws Exception {
+        ForSuperadminsApi superadminApi = TestUserHelper.getSignedInAdmin().getClient(ForSuperadminsApi.class);
+        App app = superadminApi.getApp(TEST_APP_ID).execute().body();
+        app.setReauthenticationEnabled(enabled);
+        superadminApi.updateApp(TEST_APP_ID, app).execute();
+    }
+
+    @Before
+    public void before() throws Exception {
+        worker = TestUserHelper.createAndSignInUser(SharedWorkerClientTest.class, false, Role.WORKER);
+    }
+
+    @After
+    public void after() throws Exception {
+        if (worker != null) {
+            worker.signOutAndDeleteUser();
+        }
+    }
+
+    @Test
+    public void sharedSessionAgainstSessionPerTask() throws Exception {
+        LatencyStats perTask = new LatencyStats("getParticipantsForApp, ClientManager per task");
+        perTask.runConcurrently(THREAD_COUNT, CALL_COUNT / 10, i -> {
+            ClientManager manager = new ClientManager.Builder().withSignIn(worker.getSignIn())
+                    .withClientInfo(worker.getClientManager().getClientInfo()).build();
+            return manager.getClient(ForWorkersApi.class)
+                    .getParticipantsForApp(TEST_APP_ID, 0, 5, "", null, null, null).execute().body();
+        });
+
+        LatencyStats shared = new LatencyStats("getParticipantsForApp, shared worker client");
+        try (SharedWorkerClient client = new SharedWorkerClient(worker.getSignIn(),
+                worker.getClientManager().getClientInfo(), REFRESH_INTERVAL_MILLIS)) {
+            shared.runConcurrently(THREAD_COUNT, CALL_COUNT, i -> client.call(ForWorkersApi.class,
+                    api -> api.getParticipantsForApp(TEST_APP_ID, 0, 5, "", null, null, null).execute().body()));
+
+            LOG.info(perTask.toString());
+            LOG.info(shared.toString());
+            LOG.info("Shared client: {} session refreshes ({} failed), {} API clients created, {} max concurrent "
+                    + "calls", client.getRefreshCount(), client.getRefreshFailureCount(),
+                    client.getClientCreationCount(), client.getMaxInFlight());
+
+            assertEquals(0, shared.getErrorCount());
+            assertEquals(0, client.getRefreshFailureCount());
+            assertTrue(shared.getCount() > 0);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.sagebionetworks.bridge.rest.model.Role.RESEARCHER;
+import static org.sagebionetworks.bridge.sdk.integration.Tests.PASSWORD;
+import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_ID;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.ForResearchersApi;
+import org.sagebionetworks.bridge.rest.api.OrganizationsApi;
+import org.sagebionetworks.bridge.rest.api.ParticipantsApi;
+import org.sagebionetworks.bridge.rest.api.StudiesApi;
+import org.sagebionetworks.bridge.rest.model.AccountSummary;
+import org.sagebionetworks.bridge.rest.model.AccountSummaryList;
+import org.sagebionetworks.bridge.rest.model.AccountSummarySearch;
+import org.sagebionetworks.bridge.rest.model.Enrollment;
+import org.sagebionetworks.bridge.rest.model.Organization;
+import org.sagebionetworks.bridge.rest.model.SignUp;
+import org.sagebionetworks.bridge.rest.model.Study;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+import org.sagebionetworks.bridge.util.IntegTestUtils;
+
+/**
+ * A scale version of StudyFilteringTest. Creates several organizations, hundreds of studies and thousands of
+ * participants enrolled in several studies each. Each organization has its own researcher and sponsors more and
+ * more of the studies, starting from a different place in the list, so the organizations' views overlap only
+ * partially. At each step we measure how participant listing, search and get latency change while the researchers
+ * of all the organizations call at once, each with a view filtered to their own organization's studies.
+ */
+@Category(PerformanceTest.class)
+public class StudyFilteringPerformanceTest {
+    private static final Logger LOG = LoggerFactory.getLogger(StudyFilteringPerformanceTest.class);
+
+    private static final int STUDY_COUNT = Integer.getInteger("perf.filtering.studies", 200);
+    private static final int USER_COUNT = Integer.getInteger("perf.filtering.users", 2000);
+    private static final int ENROLLMENTS_PER_USER = Integer.getInteger("perf.filtering.enrollmentsPerUser", 3);
+    private static final int ORG_COUNT = Integer.getInteger("perf.filtering.orgs", 4);
+    private static final int CALLS_PER_STEP = Integer.getInteger("perf.filtering.calls", 100);
+    private static final int THREAD_COUNT = Integer.getInteger("perf.threads", 20);
+    private static final List<Integer> SPONSORED_STUDY_STEPS = ImmutableList.of(1, 10, 50, 100, 200);
+    private static final int PAGE_SIZE = 50;
+
+    private TestUser admin;
+    private List<TestUser> researchers;
+    private List<String> orgIds;
+    private List<String> studyIds;
+    // For each organization, in the order of orgIds.
+    private List<List<String>> sponsoredStudyIds;
+    private List<String> userIds;
+
+    @Before
+    public void before() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        researchers = new ArrayList<>();
+        orgIds = new ArrayList<>();
+        studyIds = new ArrayList<>();
+        sponsoredStudyIds = new ArrayList<>();
+        userIds = new ArrayList<>();
+
+        OrganizationsApi orgsApi = admin.getClient(OrganizationsApi.class);
+        for (int i = 0; i < ORG_COUNT; i++) {
+            String orgId = Tests.randomIdentifier(StudyFilteringPerformanceTest.class);
+            orgsApi.createOrganization(new Organization().identifier(orgId).name(orgId)).execute();
+            orgIds.add(orgId);
+            sponsoredStudyIds.add(new ArrayList<>());
+        }
+    }
+
+    @After
+    public void after() throws Exception {
+        ForAdminsApi adminsApi = admin.getClient(ForAdminsApi.class);
+        OrganizationsApi orgsApi = admin.getClient(OrganizationsApi.class);
+        TeardownRegistry teardown = new TeardownRegistry(THREAD_COUNT);
+
+        for (String orgId : orgIds) {
+            teardown.register("org:" + orgId, () -> orgsApi.deleteOrganization(orgId).execute());
+        }
+        // Researchers are in the same order as their organizations.
+        for (int i = 0; i < researchers.size(); i++) {
+            TestUser researcher = researchers.get(i);
+            teardown.register("user:" + researcher.getUserId(), researcher::signOutAndDeleteUser,
+                    "org:" + orgIds.get(i));
+        }
+        for (String studyId : studyIds) {
+            teardown.register("study:" + studyId, () -> adminsApi.deleteStudy(studyId, true).execute());
+        }
+        for (int i = 0; i < orgIds.size(); i++) {
+            String orgId = orgIds.get(i);
+            for (String studyId : sponsoredStudyIds.get(i)) {
+                teardown.register("sponsor:" + orgId + ":" + studyId, () -> orgsApi.removeStudySponsorship(orgId,
+                        studyId).execute(), "org:" + orgId, "study:" + studyId);
+            }
+        }
+        // Enrollments refer to the studies, so participants go before studies.
+        String[] allStudies = studyIds.stream().map(id -> "study:" + id).toArray(String[]::new);
+        for (String userId : userIds) {
+            teardown.register("user:" + userId, () -> adminsApi.deleteUser(userId).execute(), allStudies);
+        }
+        teardown.deleteAll();
+    }
+
+    @Test
+    public void visibilityAsSponsoredStudiesGrow() throws Exception {
+        StudiesApi studiesApi = admin.getClient(StudiesApi.class);
+        ForAdminsApi adminsApi = admin.getClient(ForAdminsApi.class);
+        OrganizationsApi orgsApi = admin.getClient(OrganizationsApi.class);
+
+        String studyPrefix = Tests.randomIdentifier(StudyFilteringPerformanceTest.class);
+        for (int i = 0; i < STUDY_COUNT; i++) {
+            String studyId = studyPrefix + "-" + i;
+            studiesApi.createStudy(new Study().identifier(studyId).name(studyId)).execute();
+            studyIds.add(studyId);
+        }
+
+        // Fixed seed, so every run enrolls the same participants in the same studies.
+        LatencyStats enroll = new LatencyStats("createUser + enrollParticipant (" + ENROLLMENTS_PER_USER
+                + " studies each)");
+        Random random = new Random(42L);
+        List<List<String>> userStudies = new ArrayList<>();
+        for (int i = 0; i < USER_COUNT; i++) {
+            List<String> studies = new ArrayList<>();
+            while (studies.size() < Math.min(ENROLLMENTS_PER_USER, STUDY_COUNT)) {
+                String studyId = studyIds.get(random.nextInt(STUDY_COUNT));
+                if (!studies.contains(studyId)) {
+                    studies.add(studyId);
+                }
+            }
+            userStudies.add(studies);
+        }
+        enroll.runConcurrently(THREAD_COUNT, USER_COUNT, i -> {
+            SignUp signUp = new SignUp().email(IntegTestUtils.makeEmail(StudyFilteringPerformanceTest.class))
+                    .password(PASSWORD).appId(TEST_APP_ID).consent(true);
+            String userId = adminsApi.createUser(signUp).execute().body().getId();
+            synchronized (userIds) {
+                userIds.add(userId);
+            }
+            for (String studyId : userStudies.get(i)) {
+                studiesApi.enrollParticipant(studyId, new Enrollment().userId(userId)).execute();
+            }
+            return userId;
+        });
+        LOG.info(enroll.toString());
+        assertEquals(0, enroll.getErrorCount());
+
+        for (String orgId : orgIds) {
+            TestUser researcher = TestUserHelper.createAndSignInUser(StudyFilteringPerformanceTest.class, false,
+                    RESEARCHER);
+            researchers.add(researcher);
+            orgsApi.addMember(orgId, researcher.getUserId()).execute();
+        }
+
+        for (int sponsored : SPONSORED_STUDY_STEPS) {
+            if (sponsored > STUDY_COUNT) {
+                break;
+            }
+            // Each organization starts sponsoring from its own offset, so the sponsored sets overlap only once they
+            // cover more than STUDY_COUNT / ORG_COUNT studies.
+            for (int i = 0; i < orgIds.size(); i++) {
+                List<String> sponsoredByOrg = sponsoredStudyIds.get(i);
+                while (sponsoredByOrg.size() < sponsored) {
+                    String studyId = studyIds.get((i * STUDY_COUNT / ORG_COUNT + sponsoredByOrg.size())
+                            % STUDY_COUNT);
+                    orgsApi.addStudySponsorship(orgIds.get(i), studyId).execute();
+                    sponsoredByOrg.add(studyId);
+                }
+                // The caller's studies are fixed when the session is created.
+                researchers.get(i).signInAgain();
+            }
+            measure(sponsored);
+        }
+    }
+
+    // Calls go round robin over the organizations' researchers, so every organization's view is in use at once.
+    private void measure(int sponsored) throws Exception {
+        String label = " (" + orgIds.size() + " orgs, " + sponsored + " studies each)";
+
+        LatencyStats list = new LatencyStats("getParticipants" + label);
+        // For each organization, participants its researcher can see, to get by ID.
+        List<List<AccountSummary>> visible = new ArrayList<>();
+        for (int i = 0; i < researchers.size(); i++) {
+            visible.add(new ArrayList<>());
+        }
+        list.runConcurrently(THREAD_COUNT, CALLS_PER_STEP, i -> {
+            int org = i % researchers.size();
+            AccountSummaryList page = researchers.get(org).getClient(ForResearchersApi.class)
+                    .getParticipants(0, PAGE_SIZE, null, null, null, null).execute().body();
+            List<AccountSummary> visibleToOrg = visible.get(org);
+            synchronized (visibleToOrg) {
+                if (visibleToOrg.isEmpty()) {
+                    visibleToOrg.addAll(page.getItems());
+                }
+            }
+            return page;
+        });
+        LatencyStats search = new LatencyStats("searchAccountSummaries" + label);
+        search.runConcurrently(THREAD_COUNT, CALLS_PER_STEP, i -> researchers.get(i % researchers.size())
+                .getClient(ParticipantsApi.class).searchAccountSummaries(new AccountSummarySearch()
+                        .pageSize(PAGE_SIZE).emailFilter("bridge-testing+")).execute().body());
+        LatencyStats get = new LatencyStats("getParticipantById" + label);
+        List<Integer> orgsWithParticipants = new ArrayList<>();
+        for (int i = 0; i < visible.size(); i++) {
+            if (!visible.get(i).isEmpty()) {
+                orgsWithParticipants.add(i);
+            }
+        }
+        if (!orgsWithParticipants.isEmpty()) {
+            get.runConcurrently(THREAD_COUNT, CALLS_PER_STEP, i -> {
+                int org = orgsWithParticipants.get(i % orgsWithParticipants.size());
+                List<AccountSummary> visibleToOrg = visible.get(org);
+                return researchers.get(org).getClient(ForResearchersApi.class).getParticipantById(
+                        visibleToOrg.get(i % visibleToOrg.size()).getId(), false).execute().body();
+            });
+        }
+        List<Integer> totals = new ArrayList<>();
+        for (TestUser researcher : researchers) {
+            totals.add(researcher.getClient(ForResearchersApi.class).getParticipants(0, 1, null, null, null, null)
+                    .execute().body().getTotal());
+        }
+
+        LOG.info("{} sponsored studies per org, visible participants by org: {}", sponsored, totals);
+        LOG.info(list.toString());
+        LOG.info(search.toString());
+        LOG.info(get.toString());
+        assertEquals(0, list.getErrorCount() + search.getErrorCount() + get.getErrorCount());
+    }
+}
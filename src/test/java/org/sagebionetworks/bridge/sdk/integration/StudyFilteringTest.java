@@ -106,18 +106,14 @@ public class StudyFilteringTest {
     @AfterClass
     public static void after() throws Exception {
         ForAdminsApi adminsApi = admin.getClient(ForAdminsApi.class);
+        TeardownRegistry teardown = new TeardownRegistry();
         for (String userId : userIdsToDelete) {
-            try {
-                adminsApi.deleteUser(userId).execute();
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
+            teardown.register("user:" + userId, () -> adminsApi.deleteUser(userId).execute());
         }
-        try {
-            developer.signOutAndDeleteUser();
-        } catch (Exception e) {
-            e.printStackTrace();
+        if (developer != null) {
+            teardown.register("user:" + developer.getUserId(), developer::signOutAndDeleteUser);
         }
+        teardown.deleteAll();
     }
     
     @SuppressWarnings("deprecation")
@@ -83,7 +83,6 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
 import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
-import org.sagebionetworks.bridge.rest.api.ForSuperadminsApi;
 import org.sagebionetworks.bridge.rest.api.ForWorkersApi;
 import org.sagebionetworks.bridge.rest.api.SchedulesApi;
 import org.sagebionetworks.bridge.rest.api.SharedModulesApi;
@@ -152,7 +151,7 @@ public class SurveyTest {
     private static SharedModulesApi sharedDeveloperModulesApi;
     private static SurveysApi sharedSurveysApi;
     private static ForAdminsApi adminsApi;
-    private static ForSuperadminsApi superadminsApi;
+    private static ForAdminsApi sharedAdminsApi;
 
     private String surveyId;
 
@@ -164,7 +163,7 @@ public class SurveyTest {
     public static void beforeClass() throws Exception {
         TestUser admin = TestUserHelper.getSignedInAdmin();
         adminsApi = admin.getClient(ForAdminsApi.class);
-        superadminsApi = admin.getClient(ForSuperadminsApi.class);
+        sharedAdminsApi = AdminSessionPool.getClient(SHARED_APP_ID, ForAdminsApi.class);
         developer = TestUserHelper.createAndSignInUser(SurveyTest.class, false, Role.DEVELOPER);
         user = TestUserHelper.createAndSignInUser(SurveyTest.class, true);
         worker = TestUserHelper.createAndSignInUser(SurveyTest.class, false, Role.WORKER);
@@ -416,16 +415,14 @@ public class SurveyTest {
         // execute delete
         Exception thrownEx = null;
         try {
-            superadminsApi.adminChangeApp(Tests.SHARED_SIGNIN).execute();
-            adminsApi.deleteSurvey(retSurvey.getGuid(), retSurvey.getCreatedOn(), true).execute();
+            sharedAdminsApi.deleteSurvey(retSurvey.getGuid(), retSurvey.getCreatedOn(), true).execute();
             fail("expected exception");
         } catch (BadRequestException e) {
             thrownEx = e;
         } finally {
             // finally delete shared module and uploaded schema
-            adminsApi.deleteMetadataByIdAllVersions(moduleId, true).execute();
-            adminsApi.deleteSurvey(retSurvey.getGuid(), retSurvey.getCreatedOn(), true).execute();
-            superadminsApi.adminChangeApp(Tests.API_SIGNIN).execute();
+            sharedAdminsApi.deleteMetadataByIdAllVersions(moduleId, true).execute();
+            sharedAdminsApi.deleteSurvey(retSurvey.getGuid(), retSurvey.getCreatedOn(), true).execute();
         }
         assertNotNull(thrownEx);
     }
@@ -451,16 +448,16 @@ public class SurveyTest {
         // execute delete
         Exception thrownEx = null;
         try {
-            superadminsApi.adminChangeApp(Tests.SHARED_SIGNIN).execute();
-            adminsApi.deleteSurvey(IDENTIFIER_PREFIX+survey.getIdentifier(), retSurvey.getCreatedOn(), true).execute();
+            sharedAdminsApi.deleteSurvey(IDENTIFIER_PREFIX+survey.getIdentifier(), retSurvey.getCreatedOn(), true)
+                    .execute();
             fail("expected exception");
         } catch (BadRequestException e) {
             thrownEx = e;
         } finally {
             // finally delete shared module and uploaded schema
-            adminsApi.deleteMetadataByIdAllVersions(moduleId, true).execute();
-            adminsApi.deleteSurvey(IDENTIFIER_PREFIX+survey.getIdentifier(), retSurvey.getCreatedOn(), true).execute();
-            superadminsApi.adminChangeApp(Tests.API_SIGNIN).execute();
+            sharedAdminsApi.deleteMetadataByIdAllVersions(moduleId, true).execute();
+            sharedAdminsApi.deleteSurvey(IDENTIFIER_PREFIX+survey.getIdentifier(), retSurvey.getCreatedOn(), true)
+                    .execute();
         }
         assertNotNull(thrownEx);
     }
@@ -487,10 +484,8 @@ public class SurveyTest {
             thrownEx = e;
         } finally {
             // finally delete shared module and uploaded schema
-            superadminsApi.adminChangeApp(Tests.SHARED_SIGNIN).execute();
-            adminsApi.deleteMetadataByIdAllVersions(moduleId, true).execute();
-            adminsApi.deleteSurvey(retSurvey.getGuid(), retSurvey.getCreatedOn(), true).execute();
-            superadminsApi.adminChangeApp(Tests.API_SIGNIN).execute();
+            sharedAdminsApi.deleteMetadataByIdAllVersions(moduleId, true).execute();
+            sharedAdminsApi.deleteSurvey(retSurvey.getGuid(), retSurvey.getCreatedOn(), true).execute();
         }
         assertNotNull(thrownEx);
     }
@@ -522,10 +517,9 @@ public class SurveyTest {
             thrownEx = e;
         } finally {
             // finally delete shared module and uploaded schema
-            superadminsApi.adminChangeApp(Tests.SHARED_SIGNIN).execute();
-            adminsApi.deleteMetadataByIdAllVersions(moduleId, true).execute();
-            adminsApi.deleteSurvey(IDENTIFIER_PREFIX+survey.getIdentifier(), retSurvey.getCreatedOn(), true).execute();
-            superadminsApi.adminChangeApp(Tests.API_SIGNIN).execute();
+            sharedAdminsApi.deleteMetadataByIdAllVersions(moduleId, true).execute();
+            sharedAdminsApi.deleteSurvey(IDENTIFIER_PREFIX+survey.getIdentifier(), retSurvey.getCreatedOn(), true)
+                    .execute();
         }
         assertNotNull(thrownEx);
     }
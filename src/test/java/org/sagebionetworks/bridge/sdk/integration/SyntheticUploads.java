@@ -0,0 +1,88 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Files;
+import com.google.gson.JsonObject;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.joda.time.DateTime;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.model.UploadRequest;
+import org.sagebionetworks.bridge.rest.model.UploadSession;
+
+/**
+ * Builds uploads in the v2_generic format of src/test/resources/upload-test/unencrypted/generic-non-survey.zip
+ * (an info.json naming the schema, plus a record.json of field values) and sends them unencrypted, the way
+ * UploadTest.notEncryptedNotZipped does for raw files. The checked-in uploads are encrypted against fixed schemas;
+ * these can be made for any schema and any number of fields.
+ */
+public final class SyntheticUploads {
+    static final String INFO_FILENAME = "info.json";
+    static final String RECORD_FILENAME = "record.json";
+    static final String APP_VERSION = "version 1.0.0, build 1";
+    static final String PHONE_INFO = "Integration Tests";
+
+    private SyntheticUploads() {
+    }
+
+    /** A zipped v2_generic upload for the schema revision, whose record.json holds the given field values. */
+    public static byte[] makeGenericZip(String schemaId, long revision, Map<String, ?> record) throws IOException {
+        JsonObject info = new JsonObject();
+        info.addProperty("createdOn", DateTime.now().toString());
+        info.addProperty("format", "v2_generic");
+        info.addProperty("item", schemaId);
+        info.addProperty("schemaRevision", revision);
+        info.addProperty("dataFilename", RECORD_FILENAME);
+        info.addProperty("appVersion", APP_VERSION);
+        info.addProperty("phoneInfo", PHONE_INFO);
+        return zip(ImmutableMap.of(INFO_FILENAME, RestUtils.GSON.toJson(info),
+                RECORD_FILENAME, RestUtils.GSON.toJson(record)));
+    }
+
+    static byte[] zip(Map<String, String> files) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, String> file : files.entrySet()) {
+                zip.putNextEntry(new ZipEntry(file.getKey()));
+                zip.write(file.getValue().getBytes(UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Request an upload session for the zip and put it in S3. The caller completes the session, synchronously or
+     * not.
+     */
+    public static UploadSession upload(ForConsentedUsersApi usersApi, byte[] zip) throws Exception {
+        File file = File.createTempFile("synthetic-upload", ".zip");
+        try {
+            Files.write(zip, file);
+            UploadRequest request = new UploadRequest();
+            request.setName(file.getName());
+            request.setContentLength(file.length());
+            request.setContentMd5(Base64.encodeBase64String(DigestUtils.md5(zip)));
+            request.setContentType("application/zip");
+            request.setEncrypted(false);
+            request.setZipped(true);
+
+            UploadSession session = usersApi.requestUploadSession(request).execute().body();
+            RestUtils.uploadToS3(file, session.getUrl(), "application/zip");
+            return session;
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.Test;
+
+public class SyntheticUploadsTest {
+
+    @Test
+    public void makeGenericZip() throws Exception {
+        byte[] zip = SyntheticUploads.makeGenericZip("my-schema", 3L, ImmutableMap.of("PPP", 1337, "QQQ", "text"));
+
+        Map<String, String> files = unzip(zip);
+        assertEquals(2, files.size());
+
+        JsonObject info = new JsonParser().parse(files.get(SyntheticUploads.INFO_FILENAME)).getAsJsonObject();
+        assertEquals("v2_generic", info.get("format").getAsString());
+        assertEquals("my-schema", info.get("item").getAsString());
+        assertEquals(3L, info.get("schemaRevision").getAsLong());
+        assertEquals(SyntheticUploads.RECORD_FILENAME, info.get("dataFilename").getAsString());
+        assertEquals(SyntheticUploads.APP_VERSION, info.get("appVersion").getAsString());
+
+        JsonObject record = new JsonParser().parse(files.get(SyntheticUploads.RECORD_FILENAME)).getAsJsonObject();
+        assertEquals(1337, record.get("PPP").getAsInt());
+        assertEquals("text", record.get("QQQ").getAsString());
+    }
+
+    private static Map<String, String> unzip(byte[] zip) throws Exception {
+        Map<String, String> files = new HashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                files.put(entry.getName(), new String(ByteStreams.toByteArray(in), UTF_8));
+            }
+        }
+        return files;
+    }
+}
@@ -0,0 +1,197 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.sagebionetworks.bridge.rest.api.TagsApi;
+
+/**
+ * A local index of the app's tags, so tooling can look up tags by category and prefix without fetching the full
+ * tag map from the server for every lookup. Each category has its own prefix trie.
+ *
+ * Tag values have the form "category:tag"; a value without a colon is in the "default" category, the same way
+ * TagsApi.getTags() groups them. Call add() and remove() alongside addTag() and deleteTag() to keep the index
+ * current, and refresh() now and then to pick up changes made elsewhere. A refresh only touches the tags that
+ * changed. All methods are thread-safe.
+ */
+public class TagIndex {
+    static final String DEFAULT_CATEGORY = "default";
+
+    private static final class Node {
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+        private boolean terminal;
+        // Tags in this subtree, so a lookup can skip empty branches left behind by removals.
+        private int size;
+    }
+
+    private final Map<String, Node> categories = new TreeMap<>();
+    private int size;
+
+    /** Fetch the full tag map and apply the differences from the current index. */
+    public void refresh(TagsApi tagsApi) throws IOException {
+        refresh(tagsApi.getTags().execute().body());
+    }
+
+    /** Apply the differences between the index and this tag map, in the form returned by getTags(). */
+    public synchronized void refresh(Map<String, List<String>> tags) {
+        checkNotNull(tags);
+        Set<String> current = new HashSet<>();
+        for (Map.Entry<String, List<String>> entry : tags.entrySet()) {
+            for (String tag : entry.getValue()) {
+                current.add(tagValue(entry.getKey(), tag));
+            }
+        }
+        for (String value : getAllTagValues()) {
+            if (!current.remove(value)) {
+                remove(value);
+            }
+        }
+        for (String value : current) {
+            add(value);
+        }
+    }
+
+    /** Add a tag value ("category:tag" or "tag"). Returns false if it was already indexed. */
+    public synchronized boolean add(String tagValue) {
+        String[] parts = split(tagValue);
+        Node root = categories.computeIfAbsent(parts[0], k -> new Node());
+        if (contains(root, parts[1])) {
+            return false;
+        }
+        Node node = root;
+        node.size++;
+        for (char c : parts[1].toCharArray()) {
+            node = node.children.computeIfAbsent(c, k -> new Node());
+            node.size++;
+        }
+        node.terminal = true;
+        size++;
+        return true;
+    }
+
+    /** Remove a tag value. Returns false if it was not indexed. */
+    public synchronized boolean remove(String tagValue) {
+        String[] parts = split(tagValue);
+        Node root = categories.get(parts[0]);
+        if (root == null || !contains(root, parts[1])) {
+            return false;
+        }
+        Node node = root;
+        node.size--;
+        for (char c : parts[1].toCharArray()) {
+            Node child = node.children.get(c);
+            if (--child.size == 0) {
+                node.children.remove(c);
+                node = null;
+                break;
+            }
+            node = child;
+        }
+        if (node != null) {
+            node.terminal = false;
+        }
+        if (root.size == 0) {
+            categories.remove(parts[0]);
+        }
+        size--;
+        return true;
+    }
+
+    public synchronized boolean contains(String tagValue) {
+        String[] parts = split(tagValue);
+        Node root = categories.get(parts[0]);
+        return root != null && contains(root, parts[1]);
+    }
+
+    /** Up to limit tags in the category that start with the prefix, in sorted order, without the category. */
+    public synchronized List<String> find(String category, String prefix, int limit) {
+        checkNotNull(category);
+        checkNotNull(prefix);
+        checkArgument(limit >= 0, "limit cannot be negative");
+        List<String> results = new ArrayList<>();
+        Node node = categories.get(category);
+        for (int i = 0; node != null && i < prefix.length(); i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        if (node != null) {
+            collect(node, new StringBuilder(prefix), limit, results);
+        }
+        return results;
+    }
+
+    /** The number of tags in the category that start with the prefix. */
+    public synchronized int count(String category, String prefix) {
+        Node node = categories.get(category);
+        for (int i = 0; node != null && i < prefix.length(); i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        return (node == null) ? 0 : node.size;
+    }
+
+    public synchronized Set<String> getCategories() {
+        return new TreeSet<>(categories.keySet());
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private List<String> getAllTagValues() {
+        List<String> values = new ArrayList<>();
+        for (Map.Entry<String, Node> entry : categories.entrySet()) {
+            List<String> tags = new ArrayList<>();
+            collect(entry.getValue(), new StringBuilder(), Integer.MAX_VALUE, tags);
+            for (String tag : tags) {
+                values.add(tagValue(entry.getKey(), tag));
+            }
+        }
+        return values;
+    }
+
+    private static void collect(Node node, StringBuilder path, int limit, List<String> results) {
+        if (results.size() >= limit) {
+            return;
+        }
+        if (node.terminal) {
+            results.add(path.toString());
+        }
+        for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+            if (results.size() >= limit) {
+                return;
+            }
+            path.append(child.getKey());
+            collect(child.getValue(), path, limit, results);
+            path.setLength(path.length() - 1);
+        }
+    }
+
+    private static boolean contains(Node root, String tag) {
+        Node node = root;
+        for (int i = 0; node != null && i < tag.length(); i++) {
+            node = node.children.get(tag.charAt(i));
+        }
+        return node != null && node.terminal;
+    }
+
+    static String tagValue(String category, String tag) {
+        return DEFAULT_CATEGORY.equals(category) ? tag : category + ":" + tag;
+    }
+
+    private static String[] split(String tagValue) {
+        checkNotNull(tagValue);
+        int colon = tagValue.indexOf(':');
+        if (colon < 0) {
+            return new String[] { DEFAULT_CATEGORY, tagValue };
+        }
+        return new String[] { tagValue.substring(0, colon), tagValue.substring(colon + 1) };
+    }
+}
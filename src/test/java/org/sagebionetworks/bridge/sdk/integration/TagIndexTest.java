@@ -0,0 +1,71 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import org.junit.Test;
+
+public class TagIndexTest {
+
+    @Test
+    public void findByCategoryAndPrefix() {
+        TagIndex index = new TagIndex();
+        index.add("cat1:tag1.1");
+        index.add("cat1:tag1.2");
+        index.add("cat1:other");
+        index.add("cat2:tag2.1");
+        index.add("tag3");
+
+        assertEquals(ImmutableList.of("tag1.1", "tag1.2"), index.find("cat1", "tag", 10));
+        assertEquals(ImmutableList.of("tag1.1"), index.find("cat1", "tag", 1));
+        assertEquals(ImmutableList.of("other", "tag1.1", "tag1.2"), index.find("cat1", "", 10));
+        assertEquals(ImmutableList.of("tag3"), index.find("default", "t", 10));
+        assertEquals(ImmutableList.of(), index.find("cat3", "", 10));
+        assertEquals(2, index.count("cat1", "tag1"));
+        assertEquals(ImmutableSet.of("cat1", "cat2", "default"), index.getCategories());
+        assertEquals(5, index.size());
+
+        assertFalse(index.add("cat1:tag1.1"));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    public void removePrunesEmptyBranches() {
+        TagIndex index = new TagIndex();
+        index.add("cat1:tag");
+        index.add("cat1:tag1");
+        index.add("cat2:only");
+
+        assertTrue(index.remove("cat1:tag1"));
+        assertFalse(index.remove("cat1:tag1"));
+        assertTrue(index.contains("cat1:tag"));
+        assertEquals(ImmutableList.of("tag"), index.find("cat1", "", 10));
+
+        assertTrue(index.remove("cat1:tag"));
+        assertTrue(index.remove("cat2:only"));
+        assertEquals(0, index.size());
+        assertTrue(index.getCategories().isEmpty());
+    }
+
+    @Test
+    public void refreshAppliesDifferences() {
+        TagIndex index = new TagIndex();
+        index.add("cat1:stale");
+        index.add("cat1:kept");
+
+        index.refresh(ImmutableMap.of(
+                "cat1", ImmutableList.of("kept", "new"),
+                "default", ImmutableList.of("tag3")));
+
+        assertFalse(index.contains("cat1:stale"));
+        assertTrue(index.contains("cat1:kept"));
+        assertTrue(index.contains("cat1:new"));
+        assertTrue(index.contains("tag3"));
+        assertEquals(3, index.size());
+    }
+}
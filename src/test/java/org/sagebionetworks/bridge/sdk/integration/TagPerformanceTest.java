@@ -0,0 +1,118 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.TagsApi;
+import org.sagebionetworks.bridge.rest.model.Tag;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+
+/**
+ * Populates tens of thousands of categorized tags, measuring getTags latency and response size as the vocabulary
+ * grows. Then compares prefix lookups against a TagIndex with the same lookups done by fetching the full tag map
+ * each time.
+ */
+@Category(PerformanceTest.class)
+public class TagPerformanceTest {
+    private static final Logger LOG = LoggerFactory.getLogger(TagPerformanceTest.class);
+
+    private static final int TAG_COUNT = Integer.getInteger("perf.tags.count", 20000);
+    private static final int CATEGORY_COUNT = Integer.getInteger("perf.tags.categories", 50);
+    private static final int LOOKUP_COUNT = Integer.getInteger("perf.tags.lookups", 200);
+    private static final int GET_CALLS_PER_STEP = 10;
+    private static final int THREAD_COUNT = Integer.getInteger("perf.threads", 20);
+    private static final int STEPS = 4;
+    private static final String[] WORDS = { "activity", "balance", "cardio", "diet", "exercise", "fatigue", "gait",
+            "heart", "memory", "mood", "pain", "sleep", "speech", "tremor", "vision", "walk" };
+
+    private TagsApi tagsApi;
+    private String runId;
+    private Set<String> tagValues;
+
+    @Before
+    public void before() throws Exception {
+        tagsApi = TestUserHelper.getSignedInAdmin().getClient(TagsApi.class);
+        // Categories are unique to this run so we only measure and delete our own tags.
+        runId = Tests.randomIdentifier(TagPerformanceTest.class);
+        tagValues = ConcurrentHashMap.newKeySet();
+    }
+
+    @After
+    public void after() throws Exception {
+        TeardownRegistry teardown = new TeardownRegistry(THREAD_COUNT);
+        for (String value : tagValues) {
+            teardown.register(value, () -> tagsApi.deleteTag(value).execute());
+        }
+        teardown.deleteAll();
+    }
+
+    @Test
+    public void getTagsAsVocabularyGrows() throws Exception {
+        LatencyStats add = new LatencyStats("addTag");
+        int perStep = TAG_COUNT / STEPS;
+        Map<String, List<String>> tags = null;
+        for (int step = 1; step <= STEPS; step++) {
+            int start = (step - 1) * perStep;
+            add.runConcurrently(THREAD_COUNT, perStep, i -> addTag(start + i));
+
+            LatencyStats get = new LatencyStats("getTags (" + step * perStep + " tags added)");
+            for (int i = 0; i < GET_CALLS_PER_STEP; i++) {
+                tags = get.time(v -> tagsApi.getTags().execute().body());
+            }
+            LOG.info("{}, {} categories, {} bytes", get, tags.size(),
+                    RestUtils.GSON.toJson(tags).getBytes(UTF_8).length);
+        }
+        LOG.info(add.toString());
+
+        // The same prefix lookups, against a local index and by refetching the map every time.
+        TagIndex index = new TagIndex();
+        LatencyStats refreshStats = new LatencyStats("TagIndex.refresh (full map)");
+        refreshStats.time(v -> {
+            index.refresh(tagsApi);
+            return null;
+        });
+        Random random = new Random(42L);
+        LatencyStats indexed = new LatencyStats("TagIndex.find");
+        LatencyStats refetched = new LatencyStats("getTags + filter");
+        for (int i = 0; i < LOOKUP_COUNT; i++) {
+            String category = category(random.nextInt(CATEGORY_COUNT));
+            String prefix = WORDS[random.nextInt(WORDS.length)].substring(0, 2);
+
+            List<String> fromIndex = indexed.time(v -> index.find(category, prefix, Integer.MAX_VALUE));
+            long fromServer = refetched.time(v -> tagsApi.getTags().execute().body().get(category).stream()
+                    .filter(tag -> tag.startsWith(prefix)).count());
+            assertEquals(fromServer, fromIndex.size());
+        }
+        LOG.info(refreshStats.toString());
+        LOG.info(indexed.toString());
+        LOG.info(refetched.toString());
+    }
+
+    private Tag addTag(int index) throws Exception {
+        // e.g. "sdk-tagperformancetest-abcde-c7:sleep-123"
+        String value = category(index % CATEGORY_COUNT) + ":" + WORDS[(index / CATEGORY_COUNT) % WORDS.length]
+                + "-" + index;
+        Tag tag = new Tag().value(value);
+        tagsApi.addTag(tag).execute();
+        tagValues.add(value);
+        return tag;
+    }
+
+    private String category(int index) {
+        return runId + "-c" + index;
+    }
+}
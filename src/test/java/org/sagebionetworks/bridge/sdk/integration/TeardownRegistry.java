@@ -0,0 +1,218 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.exceptions.ConstraintViolationException;
+import org.sagebionetworks.bridge.rest.exceptions.EntityNotFoundException;
+
+/**
+ * Collects the objects a test creates and deletes them all at the end, in parallel where the references between
+ * them allow it. Register an object along with the keys of any objects it references (an app config references
+ * its schemas and surveys, a shared module references its schema). An object is only deleted once everything
+ * that references it has been deleted. Objects must be registered after the objects they reference, so there
+ * can be no cycles.
+ *
+ * A delete that fails with a ConstraintViolationException (something we didn't register still references it) is
+ * retried a few times. An object that is already gone counts as deleted. Other failures are logged and don't stop
+ * the rest of the teardown; once every delete has been tried, they are thrown together, so a test whose teardown
+ * fails still fails.
+ */
+public class TeardownRegistry {
+    private static final Logger LOG = LoggerFactory.getLogger(TeardownRegistry.class);
+
+    private static final int DEFAULT_THREAD_COUNT = 8;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long RETRY_SLEEP_MILLIS = 500;
+
+    @FunctionalInterface
+    public interface Deleter {
+        void delete() throws Exception;
+    }
+
+    private static final class Node {
+        private final String key;
+        private final Deleter deleter;
+        private final List<Node> references = new ArrayList<>();
+        private final AtomicInteger referrers = new AtomicInteger();
+
+        private Node(String key, Deleter deleter) {
+            this.key = key;
+            this.deleter = deleter;
+        }
+    }
+
+    private final int threadCount;
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private final AtomicInteger deletedCount = new AtomicInteger();
+    private final AtomicInteger retryCount = new AtomicInteger();
+    private final AtomicInteger failedCount = new AtomicInteger();
+    private final List<Exception> failures = Collections.synchronizedList(new ArrayList<>());
+
+    public TeardownRegistry() {
+        this(DEFAULT_THREAD_COUNT);
+    }
+
+    public TeardownRegistry(int threadCount) {
+        checkArgument(threadCount > 0, "threadCount must be positive");
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Register an object for deletion. Null references are ignored, so callers can pass the keys of objects that
+     * may not have been created.
+     *
+     * @return the key, to pass as a reference when registering objects that refer to this one
+     */
+    public synchronized String register(String key, Deleter deleter, String... references) {
+        checkNotNull(key);
+        checkNotNull(deleter);
+        checkArgument(!nodes.containsKey(key), "%s is already registered", key);
+
+        Node node = new Node(key, deleter);
+        for (String reference : references) {
+            if (reference != null) {
+                Node referenced = nodes.get(reference);
+                checkArgument(referenced != null, "%s must be registered before %s", reference, key);
+                node.references.add(referenced);
+            }
+        }
+        nodes.put(key, node);
+        return key;
+    }
+
+    /**
+     * Delete everything registered, and clear the registry so it can be used again. Blocks until done.
+     *
+     * @throws IllegalStateException if any delete failed, after all of them have been tried, or if the deletes
+     *      did not finish within an hour; each failure is attached as a suppressed exception
+     */
+    public void deleteAll() throws InterruptedException {
+        List<Node> toDelete;
+        synchronized (this) {
+            toDelete = new ArrayList<>(nodes.values());
+            nodes.clear();
+        }
+        if (toDelete.isEmpty()) {
+            return;
+        }
+        failures.clear();
+        for (Node node : toDelete) {
+            for (Node referenced : node.references) {
+                referenced.referrers.incrementAndGet();
+            }
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch remaining = new CountDownLatch(toDelete.size());
+        boolean finished = false;
+        try {
+            for (Node node : toDelete) {
+                if (node.referrers.get() == 0) {
+                    submit(executor, node, remaining);
+                }
+            }
+            finished = remaining.await(1, HOURS);
+        } finally {
+            executor.shutdown();
+            if (!finished || !executor.awaitTermination(1, MINUTES)) {
+                executor.shutdownNow();
+            }
+        }
+        if (!finished || !failures.isEmpty()) {
+            LOG.warn("Teardown: " + this);
+            IllegalStateException e = !finished
+                    ? new IllegalStateException("Teardown timed out with " + remaining.getCount() + " of "
+                            + toDelete.size() + " objects not deleted")
+                    : new IllegalStateException("Teardown failed to delete " + failures.size() + " of "
+                            + toDelete.size() + " objects");
+            synchronized (failures) {
+                failures.forEach(e::addSuppressed);
+            }
+            throw e;
+        }
+    }
+
+    private void submit(ExecutorService executor, Node node, CountDownLatch remaining) {
+        executor.execute(() -> {
+            try {
+                delete(node);
+            } finally {
+                for (Node referenced : node.references) {
+                    if (referenced.referrers.decrementAndGet() == 0) {
+                        submit(executor, referenced, remaining);
+                    }
+                }
+                remaining.countDown();
+            }
+        });
+    }
+
+    private void delete(Node node) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                node.deleter.delete();
+                deletedCount.incrementAndGet();
+                return;
+            } catch (EntityNotFoundException e) {
+                deletedCount.incrementAndGet();
+                return;
+            } catch (ConstraintViolationException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    fail(e, "Error deleting " + node.key + " after " + attempt + " attempts: "
+                            + e.getMessage());
+                    return;
+                }
+                retryCount.incrementAndGet();
+                try {
+                    Thread.sleep(RETRY_SLEEP_MILLIS * attempt);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    fail(ex, "Interrupted deleting " + node.key);
+                    return;
+                }
+            } catch (Exception e) {
+                fail(e, "Error deleting " + node.key + ": " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void fail(Exception e, String message) {
+        failedCount.incrementAndGet();
+        LOG.error(message, e);
+        failures.add(new IllegalStateException(message, e));
+    }
+
+    public int getDeletedCount() {
+        return deletedCount.get();
+    }
+
+    public int getRetryCount() {
+        return retryCount.get();
+    }
+
+    public int getFailedCount() {
+        return failedCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d deleted, %d retries, %d failed", getDeletedCount(), getRetryCount(),
+                getFailedCount());
+    }
+}
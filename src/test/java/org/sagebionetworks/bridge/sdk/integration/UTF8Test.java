@@ -6,14 +6,12 @@ import org.sagebionetworks.bridge.rest.api.AuthenticationApi;
 import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
 import org.sagebionetworks.bridge.rest.api.ForSuperadminsApi;
 import org.sagebionetworks.bridge.rest.model.App;
-import org.sagebionetworks.bridge.rest.model.SignIn;
 import org.sagebionetworks.bridge.rest.model.StudyParticipant;
 import org.sagebionetworks.bridge.rest.model.UserSessionInfo;
 import org.sagebionetworks.bridge.user.TestUserHelper;
 import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
 
 import static org.junit.Assert.assertEquals;
-import static org.sagebionetworks.bridge.sdk.integration.Tests.API_SIGNIN;
 
 @Category(IntegrationSmokeTest.class)
 public class UTF8Test {
@@ -37,14 +35,11 @@ public class UTF8Test {
         superadminApi.createApp(app).execute();
 
         try {
-            superadminApi.adminChangeApp(new SignIn().appId(appId)).execute();
-            
             // get study back and verify fields
             App returnedApp = superadminApi.getApp(appId).execute().body();
             assertEquals(appId, returnedApp.getIdentifier());
             assertEquals(appName, returnedApp.getName());
         } finally {
-            superadminApi.adminChangeApp(API_SIGNIN).execute();
             // clean-up: delete study
             superadminApi.deleteApp(appId, true).execute();
         }
@@ -0,0 +1,161 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.UploadSchemasApi;
+import org.sagebionetworks.bridge.rest.model.Role;
+import org.sagebionetworks.bridge.rest.model.UploadSession;
+import org.sagebionetworks.bridge.rest.model.UploadStatus;
+import org.sagebionetworks.bridge.rest.model.UploadValidationStatus;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Runs the UploadTest fixtures through the three ways of completing an upload, at increasing concurrency:
+ * synchronous validation (as in UploadTest.miscTests), asynchronous validation followed by polling for the status
+ * (as in UploadTest.testUpload, but polling more often so the latency is meaningful), and synchronous redrive of an
+ * upload that has already been validated.
+ *
+ * Each row reports two distributions: completion latency, from the completeUploadSession call to a terminal status,
+ * and end-to-end latency, which adds the upload session request and the S3 put.
+ */
+@Category(PerformanceTest.class)
+public class UploadCompletionPerformanceTest {
+    private static final Logger LOG = LoggerFactory.getLogger(UploadCompletionPerformanceTest.class);
+
+    private static final int MAX_CONCURRENCY = Integer.getInteger("perf.upload.maxConcurrency", 50);
+    // Each step runs at least as many uploads as it has threads, so every thread is busy.
+    private static final int UPLOADS_PER_STEP = Integer.getInteger("perf.upload.count", 20);
+    private static final int USER_COUNT = Integer.getInteger("perf.upload.users", 5);
+    private static final long POLL_INTERVAL_MILLIS = Long.getLong("perf.upload.pollMillis", 250L);
+    private static final long POLL_TIMEOUT_MILLIS = Long.getLong("perf.upload.pollTimeoutMillis", 60000L);
+    private static final int THREAD_COUNT = Integer.getInteger("perf.threads", 20);
+    private static final List<Integer> CONCURRENCY_STEPS = ImmutableList.of(1, 5, 10, 20, 50);
+    private static final List<String> FIXTURES = ImmutableList.of("legacy-survey-encrypted",
+            "generic-survey-encrypted", "legacy-non-survey-encrypted", "generic-non-survey-encrypted",
+            "schemaless-encrypted");
+
+    private enum Mode {
+        SYNCHRONOUS, ASYNCHRONOUS, REDRIVE
+    }
+
+    private TestUser developer;
+    private List<TestUser> users;
+
+    @Before
+    public void before() throws Exception {
+        developer = TestUserHelper.createAndSignInUser(UploadCompletionPerformanceTest.class, false, Role.DEVELOPER);
+        UploadTest.createSchemasIfMissing(developer.getClient(UploadSchemasApi.class));
+
+        // Spread the uploads over a few participants, so we measure validation rather than one account's throttling.
+        users = new ArrayList<>();
+        for (int i = 0; i < USER_COUNT; i++) {
+            users.add(TestUserHelper.createAndSignInUser(UploadCompletionPerformanceTest.class, true));
+        }
+    }
+
+    @After
+    public void after() throws Exception {
+        TeardownRegistry teardown = new TeardownRegistry(THREAD_COUNT);
+        for (TestUser user : users) {
+            teardown.register("user:" + user.getUserId(), user::signOutAndDeleteUser);
+        }
+        if (developer != null) {
+            teardown.register("user:" + developer.getUserId(), developer::signOutAndDeleteUser);
+        }
+        teardown.deleteAll();
+    }
+
+    @Test
+    public void completionModes() throws Exception {
+        List<String> report = new ArrayList<>();
+        for (int concurrency : CONCURRENCY_STEPS) {
+            if (concurrency > MAX_CONCURRENCY) {
+                break;
+            }
+            for (String fixture : FIXTURES) {
+                File file = UploadTest.resolveFilePath(users.get(0), fixture);
+                for (Mode mode : Mode.values()) {
+                    report.add(measure(file, fixture, mode, concurrency));
+                }
+            }
+        }
+        for (String line : report) {
+            LOG.info(line);
+        }
+    }
+
+    private String measure(File file, String fixture, Mode mode, int concurrency) throws Exception {
+        String label = " (" + fixture + ", " + mode + ", " + concurrency + " concurrent)";
+        LatencyStats completion = new LatencyStats("completion" + label);
+        LatencyStats endToEnd = new LatencyStats("end-to-end" + label);
+        int uploadCount = Math.max(UPLOADS_PER_STEP, concurrency);
+
+        endToEnd.runConcurrently(concurrency, uploadCount, i -> {
+            ForConsentedUsersApi usersApi = users.get(i % users.size()).getClient(ForConsentedUsersApi.class);
+            UploadSession session = usersApi.requestUploadSession(RestUtils.makeUploadRequestForFile(file))
+                    .execute().body();
+            RestUtils.uploadToS3(file, session.getUrl());
+            String uploadId = session.getId();
+
+            switch (mode) {
+            case SYNCHRONOUS:
+                return completion.time(v -> checkSucceeded(uploadId,
+                        usersApi.completeUploadSession(uploadId, true, false).execute().body()));
+            case ASYNCHRONOUS:
+                return completion.time(v -> {
+                    usersApi.completeUploadSession(uploadId, false, false).execute();
+                    return checkSucceeded(uploadId, pollForStatus(usersApi, uploadId));
+                });
+            default:
+                // Redrive only applies to an upload that has been validated once; that first pass isn't timed.
+                checkSucceeded(uploadId, usersApi.completeUploadSession(uploadId, true, false).execute().body());
+                return completion.time(v -> checkSucceeded(uploadId,
+                        usersApi.completeUploadSession(uploadId, true, true).execute().body()));
+            }
+        });
+
+        // Every failure is counted end-to-end; failures before completeUploadSession (session request, S3 put) are
+        // not counted against completion.
+        return String.format("%s; %s; error rate %.1f%%", completion, endToEnd,
+                100.0 * endToEnd.getErrorCount() / uploadCount);
+    }
+
+    private static UploadValidationStatus pollForStatus(ForConsentedUsersApi usersApi, String uploadId)
+            throws Exception {
+        long deadline = System.currentTimeMillis() + POLL_TIMEOUT_MILLIS;
+        while (true) {
+            UploadValidationStatus status = usersApi.getUploadStatus(uploadId).execute().body();
+            if (status.getStatus() == UploadStatus.SUCCEEDED
+                    || status.getStatus() == UploadStatus.VALIDATION_FAILED) {
+                return status;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Upload still " + status.getStatus() + " after "
+                        + POLL_TIMEOUT_MILLIS + " ms, UploadId=" + uploadId);
+            }
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+    }
+
+    private static UploadValidationStatus checkSucceeded(String uploadId, UploadValidationStatus status) {
+        if (status.getStatus() != UploadStatus.SUCCEEDED) {
+            throw new IllegalStateException("Upload " + status.getStatus() + ", UploadId=" + uploadId + ", messages="
+                    + status.getMessageList());
+        }
+        return status;
+    }
+}
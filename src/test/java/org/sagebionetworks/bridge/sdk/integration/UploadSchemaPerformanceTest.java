@@ -0,0 +1,200 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.sagebionetworks.bridge.rest.model.Role.DEVELOPER;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.RestUtils;
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.UploadSchemasApi;
+import org.sagebionetworks.bridge.rest.model.UploadFieldDefinition;
+import org.sagebionetworks.bridge.rest.model.UploadFieldType;
+import org.sagebionetworks.bridge.rest.model.UploadSchema;
+import org.sagebionetworks.bridge.rest.model.UploadSchemaList;
+import org.sagebionetworks.bridge.rest.model.UploadSchemaType;
+import org.sagebionetworks.bridge.rest.model.UploadSession;
+import org.sagebionetworks.bridge.rest.model.UploadStatus;
+import org.sagebionetworks.bridge.rest.model.UploadValidationStatus;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Creates schemas of 10 to 1000 fields and adds revisions to each, up to hundreds. As the revision count grows we
+ * measure getMostRecentUploadSchema, getAllRevisionsOfUploadSchema, and synchronous validation of a
+ * generic-non-survey style upload that fills in every field of the latest revision.
+ */
+@Category(PerformanceTest.class)
+public class UploadSchemaPerformanceTest {
+    private static final Logger LOG = LoggerFactory.getLogger(UploadSchemaPerformanceTest.class);
+
+    private static final int MAX_FIELDS = Integer.getInteger("perf.schema.maxFields", 1000);
+    private static final int MAX_REVISIONS = Integer.getInteger("perf.schema.maxRevisions", 100);
+    private static final int CALLS_PER_STEP = Integer.getInteger("perf.schema.calls", 50);
+    private static final int VALIDATIONS_PER_STEP = Integer.getInteger("perf.schema.validations", 10);
+    private static final int THREAD_COUNT = Integer.getInteger("perf.threads", 20);
+    private static final List<Integer> FIELD_STEPS = ImmutableList.of(10, 100, 500, 1000);
+    private static final List<Integer> REVISION_STEPS = ImmutableList.of(1, 10, 100, 300);
+    private static final List<UploadFieldType> FIELD_TYPES = ImmutableList.of(UploadFieldType.STRING,
+            UploadFieldType.INT, UploadFieldType.FLOAT, UploadFieldType.BOOLEAN, UploadFieldType.TIME_V2);
+    // In a v2_generic upload, the values in record.json are matched to schema fields with this prefix.
+    private static final String RECORD_PREFIX = SyntheticUploads.RECORD_FILENAME + ".";
+
+    private TestUser admin;
+    private TestUser developer;
+    private TestUser user;
+    private List<String> schemaIds;
+
+    @Before
+    public void before() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        developer = TestUserHelper.createAndSignInUser(UploadSchemaPerformanceTest.class, false, DEVELOPER);
+        user = TestUserHelper.createAndSignInUser(UploadSchemaPerformanceTest.class, true);
+        schemaIds = new ArrayList<>();
+    }
+
+    @After
+    public void after() throws Exception {
+        ForAdminsApi adminsApi = admin.getClient(ForAdminsApi.class);
+        TeardownRegistry teardown = new TeardownRegistry(THREAD_COUNT);
+        for (String schemaId : schemaIds) {
+            teardown.register("schema:" + schemaId, () -> adminsApi.deleteAllRevisionsOfUploadSchema(schemaId, true)
+                    .execute());
+        }
+        if (user != null) {
+            teardown.register("user:" + user.getUserId(), user::signOutAndDeleteUser);
+        }
+        if (developer != null) {
+            teardown.register("user:" + developer.getUserId(), developer::signOutAndDeleteUser);
+        }
+        teardown.deleteAll();
+    }
+
+    @Test
+    public void revisionAndFieldGrowth() throws Exception {
+        UploadSchemasApi schemasApi = developer.getClient(UploadSchemasApi.class);
+
+        for (int fields : FIELD_STEPS) {
+            if (fields > MAX_FIELDS) {
+                break;
+            }
+            String schemaId = Tests.randomIdentifier(UploadSchemaPerformanceTest.class);
+            List<UploadFieldDefinition> fieldDefs = makeFields(fields);
+            UploadSchema schema = schemasApi.createUploadSchema(makeSchema(schemaId, 1L, fieldDefs)).execute().body();
+            schemaIds.add(schemaId);
+
+            // Each revision is created explicitly (v4 semantics) rather than through createOrUpdate, so the revision
+            // count is known exactly at every step.
+            LatencyStats revise = new LatencyStats("createUploadSchema, new revision (" + fields + " fields)");
+            for (int revisions : REVISION_STEPS) {
+                if (revisions > MAX_REVISIONS) {
+                    break;
+                }
+                while (schema.getRevision() < revisions) {
+                    UploadSchema next = makeSchema(schemaId, schema.getRevision() + 1, fieldDefs);
+                    schema = revise.time(v -> schemasApi.createUploadSchema(next).execute().body());
+                }
+                measure(schema, fields, revisions);
+            }
+            LOG.info(revise.toString());
+        }
+    }
+
+    private void measure(UploadSchema schema, int fields, int revisions) throws Exception {
+        UploadSchemasApi schemasApi = developer.getClient(UploadSchemasApi.class);
+        ForConsentedUsersApi usersApi = user.getClient(ForConsentedUsersApi.class);
+        String schemaId = schema.getSchemaId();
+        String label = " (" + fields + " fields, " + revisions + " revisions)";
+
+        LatencyStats mostRecent = new LatencyStats("getMostRecentUploadSchema" + label);
+        mostRecent.runConcurrently(THREAD_COUNT, CALLS_PER_STEP, i -> schemasApi.getMostRecentUploadSchema(schemaId)
+                .execute().body());
+
+        LatencyStats allRevisions = new LatencyStats("getAllRevisionsOfUploadSchema" + label);
+        allRevisions.runConcurrently(THREAD_COUNT, CALLS_PER_STEP, i -> schemasApi.getAllRevisionsOfUploadSchema(
+                schemaId, false).execute().body());
+        UploadSchemaList list = schemasApi.getAllRevisionsOfUploadSchema(schemaId, false).execute().body();
+        int listBytes = RestUtils.GSON.toJson(list).getBytes(UTF_8).length;
+
+        byte[] zip = SyntheticUploads.makeGenericZip(schemaId, schema.getRevision(), makeRecord(fields));
+        LatencyStats uploads = new LatencyStats("upload and validate" + label);
+        LatencyStats validate = new LatencyStats("completeUploadSession, synchronous" + label);
+        uploads.runConcurrently(Math.min(THREAD_COUNT, VALIDATIONS_PER_STEP), VALIDATIONS_PER_STEP, i -> {
+            UploadSession session = SyntheticUploads.upload(usersApi, zip);
+            UploadValidationStatus status = validate.time(v -> usersApi.completeUploadSession(session.getId(),
+                    true, false).execute().body());
+            if (status.getStatus() != UploadStatus.SUCCEEDED) {
+                // Thrown rather than asserted so runConcurrently counts it as an error.
+                throw new IllegalStateException("Upload " + status.getStatus() + ", UploadId=" + session.getId()
+                        + ", messages=" + status.getMessageList());
+            }
+            return status;
+        });
+
+        LOG.info(mostRecent.toString());
+        LOG.info("{}, {} bytes", allRevisions, listBytes);
+        LOG.info("{}, {} byte upload", validate, zip.length);
+        assertEquals(revisions, list.getItems().size());
+        assertEquals(0, mostRecent.getErrorCount() + allRevisions.getErrorCount() + uploads.getErrorCount());
+    }
+
+    private static UploadSchema makeSchema(String schemaId, long revision, List<UploadFieldDefinition> fieldDefs) {
+        return new UploadSchema().schemaId(schemaId).revision(revision).name("Schema rev " + revision)
+                .schemaType(UploadSchemaType.IOS_DATA).fieldDefinitions(fieldDefs);
+    }
+
+    private static List<UploadFieldDefinition> makeFields(int count) {
+        List<UploadFieldDefinition> fields = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UploadFieldType type = FIELD_TYPES.get(i % FIELD_TYPES.size());
+            UploadFieldDefinition field = new UploadFieldDefinition().name(RECORD_PREFIX + fieldName(i)).type(type)
+                    .required(false);
+            if (type == UploadFieldType.STRING) {
+                field.maxLength(32);
+            }
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    private static Map<String, Object> makeRecord(int count) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            switch (FIELD_TYPES.get(i % FIELD_TYPES.size())) {
+            case STRING:
+                record.put(fieldName(i), "value " + i);
+                break;
+            case INT:
+                record.put(fieldName(i), i);
+                break;
+            case FLOAT:
+                record.put(fieldName(i), i + 0.5);
+                break;
+            case BOOLEAN:
+                record.put(fieldName(i), i % 2 == 0);
+                break;
+            default:
+                record.put(fieldName(i), "19:21:35.378");
+            }
+        }
+        return record;
+    }
+
+    private static String fieldName(int index) {
+        return String.format("field%04d", index);
+    }
+}
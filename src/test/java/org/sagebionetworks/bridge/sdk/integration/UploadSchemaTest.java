@@ -8,8 +8,6 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.sagebionetworks.bridge.rest.model.Role.DEVELOPER;
 import static org.sagebionetworks.bridge.rest.model.Role.WORKER;
-import static org.sagebionetworks.bridge.sdk.integration.Tests.API_SIGNIN;
-import static org.sagebionetworks.bridge.sdk.integration.Tests.SHARED_SIGNIN;
 import static org.sagebionetworks.bridge.util.IntegTestUtils.SHARED_APP_ID;
 import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_ID;
 
@@ -33,7 +31,6 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
-import org.sagebionetworks.bridge.rest.api.ForSuperadminsApi;
 import org.sagebionetworks.bridge.rest.api.ForWorkersApi;
 import org.sagebionetworks.bridge.rest.api.SharedModulesApi;
 import org.sagebionetworks.bridge.rest.api.UploadSchemasApi;
@@ -60,7 +57,7 @@ public class UploadSchemaTest {
     private static TestUserHelper.TestUser worker;
     private static TestUserHelper.TestUser sharedDeveloper;
     private static ForAdminsApi adminApi;
-    private static ForSuperadminsApi superadminApi;
+    private static ForAdminsApi sharedAdminApi;
     private static UploadSchemasApi devUploadSchemasApi;
     private static ForWorkersApi workerUploadSchemasApi;
     private static SharedModulesApi sharedDeveloperModulesApi;
@@ -78,7 +75,7 @@ public class UploadSchemaTest {
         sharedDeveloperModulesApi = sharedDeveloper.getClient(SharedModulesApi.class);
 
         adminApi = admin.getClient(ForAdminsApi.class);
-        superadminApi = admin.getClient(ForSuperadminsApi.class);
+        sharedAdminApi = AdminSessionPool.getClient(SHARED_APP_ID, ForAdminsApi.class);
         devUploadSchemasApi = developer.getClient(UploadSchemasApi.class);
         sharedUploadSchemasApi = sharedDeveloper.getClient(UploadSchemasApi.class);
         workerUploadSchemasApi = worker.getClient(ForWorkersApi.class);
@@ -92,7 +89,6 @@ public class UploadSchemaTest {
     @After
     public void deleteSchemas() throws Exception {
         try {
-            superadminApi.adminChangeApp(API_SIGNIN).execute();
             adminApi.deleteAllRevisionsOfUploadSchema(schemaId, true).execute();
         } catch (EntityNotFoundException ex) {
             // Suppress the exception, as the test may have already deleted the schema.
@@ -143,19 +139,14 @@ public class UploadSchemaTest {
         // execute delete
         Exception thrownEx = null;
         try {
-            superadminApi.adminChangeApp(SHARED_SIGNIN).execute();
-            adminApi.deleteAllRevisionsOfUploadSchema(retSchema.getSchemaId(), true).execute();
-            superadminApi.adminChangeApp(API_SIGNIN).execute();
+            sharedAdminApi.deleteAllRevisionsOfUploadSchema(retSchema.getSchemaId(), true).execute();
             fail("expected exception");
         } catch (BadRequestException e) {
             thrownEx = e;
         } finally {
             // finally delete shared module and uploaded schema
-            adminApi.deleteMetadataByIdAllVersions(moduleId, true).execute();
-
-            superadminApi.adminChangeApp(SHARED_SIGNIN).execute();
-            adminApi.deleteAllRevisionsOfUploadSchema(retSchema.getSchemaId(), true).execute();
-            superadminApi.adminChangeApp(API_SIGNIN).execute();
+            sharedAdminApi.deleteMetadataByIdAllVersions(moduleId, true).execute();
+            sharedAdminApi.deleteAllRevisionsOfUploadSchema(retSchema.getSchemaId(), true).execute();
         }
         assertNotNull(thrownEx);
     }
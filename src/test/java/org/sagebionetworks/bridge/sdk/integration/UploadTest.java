@@ -105,8 +105,11 @@ public class UploadTest {
         user = TestUserHelper.createAndSignInUser(UploadTest.class, true, signUp);
 
         // ensure schemas exist, so we have something to upload against
-        UploadSchemasApi uploadSchemasApi = developer.getClient(UploadSchemasApi.class);
+        createSchemasIfMissing(developer.getClient(UploadSchemasApi.class));
+    }
 
+    /** The checked-in upload fixtures are made against these schemas; create them if this app doesn't have them. */
+    static void createSchemasIfMissing(UploadSchemasApi uploadSchemasApi) throws Exception {
         UploadSchema legacySurveySchema = null;
         try {
             legacySurveySchema = uploadSchemasApi.getMostRecentUploadSchema("legacy-survey").execute().body();
@@ -485,6 +488,11 @@ public class UploadTest {
 
     // returns the path relative to the root of the project
     private static File resolveFilePath(String fileLeafName) {
+        return resolveFilePath(user, fileLeafName);
+    }
+
+    /** The encrypted upload fixture for the environment the given user's client is configured against. */
+    static File resolveFilePath(TestUserHelper.TestUser user, String fileLeafName) {
         String envName = user.getClientManager().getConfig().getEnvironment().name().toLowerCase(Locale.ENGLISH);
         String filePath = "src/test/resources/upload-test/" + envName + "/" + fileLeafName;
         return new File(filePath);
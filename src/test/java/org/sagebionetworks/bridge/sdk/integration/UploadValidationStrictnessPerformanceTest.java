@@ -0,0 +1,215 @@
+package org.sagebionetworks.bridge.sdk.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.sagebionetworks.bridge.util.IntegTestUtils.TEST_APP_ID;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.joda.time.DateTime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.sagebionetworks.bridge.rest.api.ForAdminsApi;
+import org.sagebionetworks.bridge.rest.api.ForConsentedUsersApi;
+import org.sagebionetworks.bridge.rest.api.ForSuperadminsApi;
+import org.sagebionetworks.bridge.rest.api.HealthDataApi;
+import org.sagebionetworks.bridge.rest.api.UploadSchemasApi;
+import org.sagebionetworks.bridge.rest.exceptions.BadRequestException;
+import org.sagebionetworks.bridge.rest.model.App;
+import org.sagebionetworks.bridge.rest.model.HealthDataRecord;
+import org.sagebionetworks.bridge.rest.model.HealthDataSubmission;
+import org.sagebionetworks.bridge.rest.model.Role;
+import org.sagebionetworks.bridge.rest.model.UploadFieldDefinition;
+import org.sagebionetworks.bridge.rest.model.UploadFieldType;
+import org.sagebionetworks.bridge.rest.model.UploadSchema;
+import org.sagebionetworks.bridge.rest.model.UploadSchemaType;
+import org.sagebionetworks.bridge.rest.model.UploadSession;
+import org.sagebionetworks.bridge.rest.model.UploadStatus;
+import org.sagebionetworks.bridge.rest.model.UploadValidationStatus;
+import org.sagebionetworks.bridge.rest.model.UploadValidationStrictness;
+import org.sagebionetworks.bridge.user.TestUserHelper;
+import org.sagebionetworks.bridge.user.TestUserHelper.TestUser;
+
+/**
+ * Sends the same workload under every combination of uploadValidationStrictness (unset, WARNING, REPORT, STRICT)
+ * and strictUploadValidationEnabled (the older flag, which only applies while strictness is unset). The workload is
+ * health data submissions and synchronously validated uploads, each half valid and half missing a required field,
+ * so the cost of finding, reporting and rejecting invalid data all show up.
+ *
+ * Strictness is an app setting, like in HealthDataTest, so don't run this alongside other tests. The original
+ * settings are restored afterwards.
+ */
+@Category(PerformanceTest.class)
+public class UploadValidationStrictnessPerformanceTest {
+    private static final Logger LOG = LoggerFactory.getLogger(UploadValidationStrictnessPerformanceTest.class);
+
+    private static final String APP_VERSION = "version 1.0.0, build 2";
+    private static final String PHONE_INFO = "Integration Tests";
+    private static final int SUBMISSIONS = Integer.getInteger("perf.strictness.submissions", 200);
+    private static final int UPLOADS = Integer.getInteger("perf.strictness.uploads", 20);
+    private static final int USER_COUNT = Integer.getInteger("perf.strictness.users", 5);
+    private static final int THREAD_COUNT = Integer.getInteger("perf.threads", 20);
+    // null leaves strictness unset, so strictUploadValidationEnabled decides.
+    private static final List<UploadValidationStrictness> STRICTNESS_LEVELS = Arrays.asList(null,
+            UploadValidationStrictness.WARNING, UploadValidationStrictness.REPORT, UploadValidationStrictness.STRICT);
+
+    private TestUser admin;
+    private TestUser developer;
+    private List<TestUser> users;
+    private String submissionSchemaId;
+    private String uploadSchemaId;
+    private UploadValidationStrictness originalStrictness;
+    private Boolean originalStrictUploadValidationEnabled;
+
+    @Before
+    public void before() throws Exception {
+        admin = TestUserHelper.getSignedInAdmin();
+        App app = admin.getClient(ForSuperadminsApi.class).getApp(TEST_APP_ID).execute().body();
+        originalStrictness = app.getUploadValidationStrictness();
+        originalStrictUploadValidationEnabled = app.isStrictUploadValidationEnabled();
+
+        // after() only restores the settings once the developer exists, which means they were read.
+        developer = TestUserHelper.createAndSignInUser(UploadValidationStrictnessPerformanceTest.class, false,
+                Role.DEVELOPER);
+
+        // Submissions name fields by their key in data; uploads by file, then key.
+        UploadSchemasApi schemasApi = developer.getClient(UploadSchemasApi.class);
+        submissionSchemaId = Tests.randomIdentifier(UploadValidationStrictnessPerformanceTest.class);
+        schemasApi.createUploadSchema(makeSchema(submissionSchemaId, "")).execute();
+        uploadSchemaId = Tests.randomIdentifier(UploadValidationStrictnessPerformanceTest.class);
+        schemasApi.createUploadSchema(makeSchema(uploadSchemaId, SyntheticUploads.RECORD_FILENAME + "."))
+                .execute();
+
+        users = new ArrayList<>();
+        for (int i = 0; i < USER_COUNT; i++) {
+            users.add(TestUserHelper.createAndSignInUser(UploadValidationStrictnessPerformanceTest.class, true));
+        }
+    }
+
+    @After
+    public void after() throws Exception {
+        if (developer != null) {
+            setStrictness(originalStrictness, originalStrictUploadValidationEnabled);
+        }
+        ForAdminsApi adminsApi = admin.getClient(ForAdminsApi.class);
+        TeardownRegistry teardown = new TeardownRegistry(THREAD_COUNT);
+        for (String schemaId : new String[] { submissionSchemaId, uploadSchemaId }) {
+            if (schemaId != null) {
+                teardown.register("schema:" + schemaId, () -> adminsApi.deleteAllRevisionsOfUploadSchema(schemaId,
+                        true).execute());
+            }
+        }
+        for (TestUser user : users) {
+            teardown.register("user:" + user.getUserId(), user::signOutAndDeleteUser);
+        }
+        if (developer != null) {
+            teardown.register("user:" + developer.getUserId(), developer::signOutAndDeleteUser);
+        }
+        teardown.deleteAll();
+    }
+
+    @Test
+    public void strictnessLevels() throws Exception {
+        List<String> report = new ArrayList<>();
+        for (boolean strictEnabled : new boolean[] { false, true }) {
+            for (UploadValidationStrictness strictness : STRICTNESS_LEVELS) {
+                setStrictness(strictness, strictEnabled);
+                String label = " (strictness=" + strictness + ", strictUploadValidationEnabled=" + strictEnabled
+                        + ")";
+                report.add(measureSubmissions(label));
+                report.add(measureUploads(label));
+            }
+        }
+        for (String line : report) {
+            LOG.info(line);
+        }
+    }
+
+    private String measureSubmissions(String label) throws Exception {
+        AtomicInteger reported = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        LatencyStats stats = new LatencyStats("submitHealthData" + label);
+        stats.runConcurrently(THREAD_COUNT, SUBMISSIONS, i -> {
+            HealthDataApi healthDataApi = users.get(i % USER_COUNT).getClient(HealthDataApi.class);
+            try {
+                HealthDataRecord record = healthDataApi.submitHealthData(makeSubmission(i % 2 == 0)).execute()
+                        .body();
+                if (record.getValidationErrors() != null) {
+                    reported.incrementAndGet();
+                }
+            } catch (BadRequestException e) {
+                // STRICT rejecting invalid data is the behavior being measured, not a failure.
+                rejected.incrementAndGet();
+            }
+            return null;
+        });
+        assertEquals(0, stats.getErrorCount());
+        return String.format("%s; %d invalid reported, %d rejected", stats, reported.get(), rejected.get());
+    }
+
+    private String measureUploads(String label) throws Exception {
+        AtomicInteger failed = new AtomicInteger();
+        LatencyStats uploads = new LatencyStats("upload" + label);
+        LatencyStats validate = new LatencyStats("completeUploadSession, synchronous" + label);
+        uploads.runConcurrently(Math.min(THREAD_COUNT, UPLOADS), UPLOADS, i -> {
+            ForConsentedUsersApi usersApi = users.get(i % USER_COUNT).getClient(ForConsentedUsersApi.class);
+            UploadSession session = SyntheticUploads.upload(usersApi, SyntheticUploads.makeGenericZip(
+                    uploadSchemaId, 1L, makeData(i % 2 == 0)));
+            UploadValidationStatus status = validate.time(v -> usersApi.completeUploadSession(session.getId(), true,
+                    false).execute().body());
+            if (status.getStatus() == UploadStatus.VALIDATION_FAILED) {
+                // Like a rejected submission, this is the behavior being measured.
+                failed.incrementAndGet();
+            }
+            return null;
+        });
+        assertEquals(0, uploads.getErrorCount());
+        return String.format("%s; %d failed validation", validate, failed.get());
+    }
+
+    // As in AppTest, both settings are changed through the superadmin API. They are read back so each row is known
+    // to measure what its label says.
+    private void setStrictness(UploadValidationStrictness strictness, Boolean strictEnabled) throws Exception {
+        ForSuperadminsApi superadminApi = admin.getClient(ForSuperadminsApi.class);
+        App app = superadminApi.getApp(TEST_APP_ID).execute().body();
+        app.setUploadValidationStrictness(strictness);
+        app.setStrictUploadValidationEnabled(strictEnabled);
+        superadminApi.updateApp(TEST_APP_ID, app).execute();
+
+        App updated = superadminApi.getApp(TEST_APP_ID).execute().body();
+        assertEquals(strictness, updated.getUploadValidationStrictness());
+        assertEquals(strictEnabled, updated.isStrictUploadValidationEnabled());
+    }
+
+    private HealthDataSubmission makeSubmission(boolean valid) {
+        return new HealthDataSubmission().appVersion(APP_VERSION).createdOn(DateTime.now()).phoneInfo(PHONE_INFO)
+                .schemaId(submissionSchemaId).schemaRevision(1L).data(makeData(valid));
+    }
+
+    // Invalid data is missing the required count field.
+    private static Map<String, Object> makeData(boolean valid) {
+        if (valid) {
+            return ImmutableMap.<String, Object>of("foo", "foo value", "count", 42);
+        }
+        return ImmutableMap.<String, Object>of("foo", "foo value");
+    }
+
+    private static UploadSchema makeSchema(String schemaId, String fieldPrefix) {
+        UploadFieldDefinition fooField = new UploadFieldDefinition().name(fieldPrefix + "foo")
+                .type(UploadFieldType.STRING).maxLength(24).required(true);
+        UploadFieldDefinition countField = new UploadFieldDefinition().name(fieldPrefix + "count")
+                .type(UploadFieldType.INT).required(true);
+        return new UploadSchema().schemaId(schemaId).revision(1L).name("Strictness benchmark")
+                .schemaType(UploadSchemaType.IOS_DATA).fieldDefinitions(ImmutableList.of(fooField, countField));
+    }
+}
@@ -42,7 +42,6 @@ import org.sagebionetworks.bridge.rest.model.HealthDataRecord;
 import org.sagebionetworks.bridge.rest.model.Role;
 import org.sagebionetworks.bridge.rest.model.SchedulePlan;
 import org.sagebionetworks.bridge.rest.model.SchedulePlanList;
-import org.sagebionetworks.bridge.rest.model.SignIn;
 import org.sagebionetworks.bridge.rest.model.SignUp;
 import org.sagebionetworks.bridge.rest.model.SimpleScheduleStrategy;
 import org.sagebionetworks.bridge.rest.model.SmsMessage;
@@ -344,11 +343,8 @@ public class WorkerApiTest {
      */
     @Test
     public void retrieveUsersBetweenApps() throws Exception {
-        ForSuperadminsApi adminsApi = admin.getClient(ForSuperadminsApi.class);
-        adminsApi.adminChangeApp(new SignIn().appId(SHARED_APP_ID)).execute();
+        // The helper creates each user in the app it is given, so the admin doesn't need to change apps.
         TestUser sharedUser = new TestUserHelper.Builder(WorkerApiTest.class).withAppId(SHARED_APP_ID).createUser();
-        
-        adminsApi.adminChangeApp(new SignIn().appId(TEST_APP_ID)).execute();
         TestUser testUser = new TestUserHelper.Builder(WorkerApiTest.class).withAppId(TEST_APP_ID).createUser();
         
         // This worker is by default in Sage Bionetworks, and thus is associated to studies in the 'api'